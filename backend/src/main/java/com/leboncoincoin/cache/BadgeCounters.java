@@ -0,0 +1,160 @@
+package com.leboncoincoin.cache;
+
+import com.leboncoincoin.dto.BadgesResponse;
+import com.leboncoincoin.event.FavoriteChangedEvent;
+import com.leboncoincoin.event.ListingChangedEvent;
+import com.leboncoincoin.event.UserNotificationEvent;
+import com.leboncoincoin.notification.UserNotification;
+import com.leboncoincoin.repository.ConversationRepository;
+import com.leboncoincoin.repository.FavoriteRepository;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user favorites and unread message counters behind /me/badges.
+ * Loaded from SQL on a miss, then dropped by committed favorite writes and kept up to date by
+ * messaging writes of this instance. Entries older than the TTL are reloaded: nothing pushes
+ * writes served by other instances, the TTL is the only bound on their staleness.
+ */
+@ApplicationScoped
+public class BadgeCounters {
+
+    @ConfigProperty(name = "app.badges.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.badges.max-size", defaultValue = "10000")
+    int maxSize;
+
+    @ConfigProperty(name = "app.badges.ttl", defaultValue = "PT5M")
+    Duration ttl;
+
+    @Inject
+    FavoriteRepository favoriteRepository;
+
+    @Inject
+    ConversationRepository conversationRepository;
+
+    private final ConcurrentHashMap<String, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped on every invalidation, a load that overlaps one is not stored
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BadgesResponse get(String userId) {
+        if (!enabled) {
+            return load(userId);
+        }
+
+        Counters cached = counters.get(userId);
+        if (cached != null && !cached.isExpired(ttl)) {
+            hits.increment();
+            return cached.toResponse();
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        BadgesResponse loaded = load(userId);
+        if (cached == null && counters.size() >= maxSize) {
+            // Entries of users gone idle are only dropped here, once the map is full
+            counters.values().removeIf(entry -> entry.isExpired(ttl));
+        }
+        if (generation.get() == loadGeneration && (cached != null || counters.size() < maxSize)) {
+            counters.put(userId, new Counters(loaded));
+        }
+        return loaded;
+    }
+
+    public Stats stats() {
+        return new Stats(enabled, counters.size(), hits.sum(), misses.sum());
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        counters.clear();
+    }
+
+    /**
+     * A delta could double count the favorite in a load that read it before this event,
+     * so the entry is dropped and the overlapping loads are not stored
+     */
+    void onFavoriteChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) FavoriteChangedEvent event) {
+        generation.incrementAndGet();
+        counters.remove(event.userId());
+    }
+
+    /**
+     * MessagingNotifier computes the recipient's unread total inside the write transaction
+     */
+    void onNotification(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserNotificationEvent event) {
+        UserNotification notification = event.notification();
+        if (notification.type() != UserNotification.Type.UNREAD_COUNT) {
+            return;
+        }
+        Counters entry = counters.get(event.userId());
+        if (entry != null) {
+            entry.unreadMessages.set(notification.unreadCount());
+        }
+    }
+
+    /**
+     * Deleting a listing hides it from its favorites and drops its conversations,
+     * the counters of those users are reloaded on their next read
+     */
+    void onListingChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ListingChangedEvent event) {
+        if (event.type() == ListingChangedEvent.Type.DELETED && !event.affectedUserIds().isEmpty()) {
+            generation.incrementAndGet();
+            event.affectedUserIds().forEach(counters::remove);
+            Log.debugf("Badge counters of %d users invalidated after deletion of listing %s",
+                    event.affectedUserIds().size(), event.listing().id);
+        }
+    }
+
+    private BadgesResponse load(String userId) {
+        return new BadgesResponse(
+            favoriteRepository.countActiveByUserId(userId),
+            conversationRepository.countUnreadByUserId(userId)
+        );
+    }
+
+    public record Stats(
+        boolean enabled,
+        long size,
+        long hits,
+        long misses
+    ) {
+    }
+
+    private static final class Counters {
+        // Unread totals arrive as absolute values, favorite changes drop the entry
+        final long favorites;
+        final AtomicLong unreadMessages = new AtomicLong();
+        final long loadedAt;
+
+        Counters(BadgesResponse loaded) {
+            favorites = loaded.favorites();
+            unreadMessages.set(loaded.unreadMessages());
+            loadedAt = System.nanoTime();
+        }
+
+        boolean isExpired(Duration ttl) {
+            return System.nanoTime() - loadedAt > ttl.toNanos();
+        }
+
+        BadgesResponse toResponse() {
+            return new BadgesResponse(favorites, Math.max(0, unreadMessages.get()));
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.leboncoincoin.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.leboncoincoin.dto.ListingFilter;
+import com.leboncoincoin.dto.ListingSort;
+import com.leboncoincoin.event.ListingChangedEvent;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cache of serialized listing search results (full feed, first page or facet counts), keyed by the
+ * filter. Bounded in size and TTL; listing writes invalidate the entries of
+ * the affected categories plus every entry not filtered by category.
+ * The TTL also bounds staleness of seller names and of writes served by other instances.
+ */
+@ApplicationScoped
+public class ListingQueryCache {
+
+    @ConfigProperty(name = "app.listings.cache.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.listings.cache.max-size", defaultValue = "500")
+    long maxSize;
+
+    @ConfigProperty(name = "app.listings.cache.ttl", defaultValue = "PT30S")
+    Duration ttl;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private Cache<Key, byte[]> cache;
+
+    /**
+     * Bumped on every invalidation, a load that overlaps one is not stored
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Serialized result for the filter, loaded and cached on a miss.
+     * pageSize is null for the full (non-paginated) feed.
+     */
+    public byte[] get(ListingFilter filter, Integer pageSize, Supplier<Object> loader) {
+        if (!enabled) {
+            return serialize(loader.get());
+        }
+
+        return get(Key.of(filter, pageSize, false), loader);
+    }
+
+    /**
+     * Serialized facet counts for the filter, loaded and cached on a miss
+     */
+    public byte[] getFacets(ListingFilter filter, Supplier<Object> loader) {
+        if (!enabled) {
+            return serialize(loader.get());
+        }
+        return get(Key.of(filter, null, true), loader);
+    }
+
+    private byte[] get(Key key, Supplier<Object> loader) {
+        byte[] cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Load outside of the cache lock so a slow query never blocks other keys
+        long loadGeneration = generation.get();
+        byte[] loaded = serialize(loader.get());
+        if (generation.get() == loadGeneration) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    public Stats stats() {
+        CacheStats stats = cache.stats();
+        return new Stats(enabled, cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    void onListingChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ListingChangedEvent event) {
+        Set<String> categories = Stream.of(event.listing().category, event.previousCategory())
+                .map(ListingFilter::normalize)
+                .filter(category -> category != null)
+                .collect(Collectors.toSet());
+
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.category() == null || categories.contains(key.category()));
+        Log.debugf("Listing cache invalidated for categories %s after %s", categories, event.type());
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize listings", e);
+        }
+    }
+
+    public record Stats(
+        boolean enabled,
+        long size,
+        long hits,
+        long misses,
+        long evictions
+    ) {
+    }
+
+    /**
+     * Filter values (already normalized by ListingFilter) plus the shape of the response
+     */
+    record Key(
+        String category,
+        String location,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        String searchTerm,
+        ListingSort sort,
+        Integer pageSize,
+        boolean facets
+    ) {
+        static Key of(ListingFilter filter, Integer pageSize, boolean facets) {
+            if (filter == null) {
+                return new Key(null, null, null, null, null, ListingSort.DATE, pageSize, facets);
+            }
+            return new Key(
+                filter.category(),
+                filter.location(),
+                filter.minPrice(),
+                filter.maxPrice(),
+                filter.searchTerm(),
+                filter.sortByRelevance() && !facets ? ListingSort.RELEVANCE : ListingSort.DATE,
+                pageSize,
+                facets
+            );
+        }
+    }
+}
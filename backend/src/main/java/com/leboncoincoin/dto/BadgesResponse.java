@@ -0,0 +1,10 @@
+package com.leboncoincoin.dto;
+
+/**
+ * Navbar counters of the current user
+ */
+public record BadgesResponse(
+    long favorites,
+    long unreadMessages
+) {
+}
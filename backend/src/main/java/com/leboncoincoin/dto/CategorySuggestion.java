@@ -0,0 +1,7 @@
+package com.leboncoincoin.dto;
+
+public record CategorySuggestion(
+    String category,
+    int score
+) {
+}
@@ -0,0 +1,25 @@
+package com.leboncoincoin.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position in the favorites of a user, ordered by (createdAt DESC, id DESC).
+ * createdAt is the raw favorites.created_at value so it compares exactly.
+ * Exposed to clients as an opaque base64url token.
+ */
+public record FavoriteCursor(
+    LocalDateTime createdAt,
+    String id
+) {
+    public String encode() {
+        return Pagination.encodeCursor(createdAt, id);
+    }
+
+    /**
+     * Decode a cursor token, returns null for a blank token (first page)
+     */
+    public static FavoriteCursor decode(String token) {
+        return Pagination.decodeCursor(token,
+                (position, id) -> new FavoriteCursor(LocalDateTime.parse(position), id));
+    }
+}
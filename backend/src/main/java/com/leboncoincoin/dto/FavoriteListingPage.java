@@ -0,0 +1,12 @@
+package com.leboncoincoin.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user's favorites, most recent first, nextCursor is null on the last page
+ */
+public record FavoriteListingPage(
+    List<FavoriteListingResponse> items,
+    String nextCursor
+) {
+}
@@ -0,0 +1,10 @@
+package com.leboncoincoin.dto;
+
+/**
+ * A favorite with the listing it points to
+ */
+public record FavoriteListingResponse(
+    FavoriteResponse favorite,
+    ListingResponse listing
+) {
+}
@@ -0,0 +1,14 @@
+package com.leboncoincoin.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record FavoriteStatusRequest(
+    @NotNull(message = "Listing ids are required")
+    @Size(max = 500, message = "At most 500 listing ids per request")
+    List<@NotBlank String> listingIds
+) {
+}
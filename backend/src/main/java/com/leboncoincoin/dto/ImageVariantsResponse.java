@@ -0,0 +1,43 @@
+package com.leboncoincoin.dto;
+
+import com.leboncoincoin.entity.ImageVariant;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resized copies of one listing image: card (grids), detail (listing page) and zoom
+ */
+public record ImageVariantsResponse(
+    String original,
+    String card,
+    String detail,
+    String zoom
+) {
+    public static ImageVariantsResponse from(ImageVariant variant) {
+        return new ImageVariantsResponse(variant.imageUrl, variant.cardUrl, variant.detailUrl, variant.zoomUrl);
+    }
+
+    /**
+     * Variants selected in native queries as a flat text[] of (original, card, detail, zoom) groups
+     */
+    public static List<ImageVariantsResponse> fromSqlArray(Object value) {
+        try {
+            Object array = value instanceof Array sqlArray ? sqlArray.getArray() : value;
+            if (array == null) {
+                return List.of();
+            }
+            Object[] urls = (Object[]) array;
+            List<ImageVariantsResponse> variants = new ArrayList<>(urls.length / 4);
+            for (int i = 0; i + 3 < urls.length; i += 4) {
+                variants.add(new ImageVariantsResponse((String) urls[i], (String) urls[i + 1],
+                        (String) urls[i + 2], (String) urls[i + 3]));
+            }
+            return variants;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read image variants", e);
+        }
+    }
+}
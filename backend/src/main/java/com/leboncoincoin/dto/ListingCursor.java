@@ -0,0 +1,30 @@
+package com.leboncoincoin.dto;
+
+import com.leboncoincoin.entity.Listing;
+
+import java.time.Instant;
+
+/**
+ * Keyset position in the listing feed, ordered by (createdAt DESC, id DESC).
+ * Exposed to clients as an opaque base64url token.
+ */
+public record ListingCursor(
+    Instant createdAt,
+    String id
+) {
+    public static ListingCursor after(Listing listing) {
+        return new ListingCursor(listing.createdAt, listing.id);
+    }
+
+    public String encode() {
+        return Pagination.encodeCursor(createdAt, id);
+    }
+
+    /**
+     * Decode a cursor token, returns null for a blank token (first page)
+     */
+    public static ListingCursor decode(String token) {
+        return Pagination.decodeCursor(token,
+                (position, id) -> new ListingCursor(Instant.parse(position), id));
+    }
+}
@@ -0,0 +1,58 @@
+package com.leboncoincoin.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result counts of a listing search, per category, price range and top locations.
+ * Every facet is counted under the full filter, including its own dimension.
+ */
+public record ListingFacetsResponse(
+    long total,
+    List<FacetCount> categories,
+    List<PriceRangeCount> priceRanges,
+    List<FacetCount> locations
+) {
+    /**
+     * Upper bounds (exclusive) of the price buckets, the last bucket is open-ended
+     */
+    public static final List<BigDecimal> PRICE_BOUNDS = List.of(
+        new BigDecimal("10"),
+        new BigDecimal("50"),
+        new BigDecimal("100"),
+        new BigDecimal("500"),
+        new BigDecimal("1000")
+    );
+
+    public record FacetCount(
+        String value,
+        long count
+    ) {
+    }
+
+    public record PriceRangeCount(
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        long count
+    ) {
+    }
+
+    public static ListingFacetsResponse empty() {
+        return new ListingFacetsResponse(0, List.of(), priceRanges(new long[PRICE_BOUNDS.size() + 1]), List.of());
+    }
+
+    /**
+     * Price ranges from the per-bucket counts, indexed like PRICE_BOUNDS plus the open-ended bucket
+     */
+    public static List<PriceRangeCount> priceRanges(long[] counts) {
+        List<PriceRangeCount> ranges = new ArrayList<>(counts.length);
+        BigDecimal min = BigDecimal.ZERO;
+        for (int i = 0; i < counts.length; i++) {
+            BigDecimal max = i < PRICE_BOUNDS.size() ? PRICE_BOUNDS.get(i) : null;
+            ranges.add(new PriceRangeCount(min, max, counts[i]));
+            min = max;
+        }
+        return ranges;
+    }
+}
@@ -1,21 +1,56 @@
 package com.leboncoincoin.dto;
 
 import java.math.BigDecimal;
+import java.util.Locale;
 
 /**
- * Filter parameters for listing search
+ * Filter parameters for listing search, normalized on construction: text trimmed and lower-cased,
+ * blank values dropped, prices compared by value. Equivalent requests give equal filters, so the
+ * query and the listing cache key always see the same values.
  */
 public record ListingFilter(
     String category,
     String location,
     BigDecimal minPrice,
     BigDecimal maxPrice,
-    String searchTerm
+    String searchTerm,
+    ListingSort sort
 ) {
+    public ListingFilter {
+        category = normalize(category);
+        location = normalize(location);
+        minPrice = minPrice != null ? minPrice.stripTrailingZeros() : null;
+        maxPrice = maxPrice != null ? maxPrice.stripTrailingZeros() : null;
+        searchTerm = normalize(searchTerm);
+        sort = sort != null ? sort : ListingSort.DATE;
+    }
+
+    public ListingFilter(String category, String location, BigDecimal minPrice,
+                         BigDecimal maxPrice, String searchTerm) {
+        this(category, location, minPrice, maxPrice, searchTerm, ListingSort.DATE);
+    }
+
     public boolean hasFilters() {
         return category != null || location != null || 
                minPrice != null || maxPrice != null || 
                searchTerm != null;
     }
-}
 
+    public boolean hasSearchTerm() {
+        return searchTerm != null && !searchTerm.isBlank();
+    }
+
+    public boolean sortByRelevance() {
+        return sort == ListingSort.RELEVANCE && hasSearchTerm();
+    }
+
+    /**
+     * Trimmed, lower-cased value, null when blank. The queries compare case-insensitively.
+     */
+    public static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,30 @@
+package com.leboncoincoin.dto;
+
+import com.leboncoincoin.entity.Listing;
+
+import java.util.List;
+
+/**
+ * One page of the listing feed, nextCursor is null on the last page
+ */
+public record ListingPage(
+    List<ListingResponse> items,
+    String nextCursor
+) {
+    /**
+     * Build a page from a keyset query that fetched limit + 1 rows,
+     * the extra row only tells us whether another page exists
+     */
+    public static ListingPage of(List<Listing> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<Listing> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore
+            ? ListingCursor.after(pageRows.get(pageRows.size() - 1)).encode()
+            : null;
+
+        return new ListingPage(
+            ListingResponse.fromAll(pageRows),
+            nextCursor
+        );
+    }
+}
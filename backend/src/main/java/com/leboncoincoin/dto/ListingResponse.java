@@ -1,11 +1,15 @@
 package com.leboncoincoin.dto;
 
+import com.leboncoincoin.entity.ImageVariant;
 import com.leboncoincoin.entity.Listing;
 import com.leboncoincoin.entity.User;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 public record ListingResponse(
     String id,
@@ -19,11 +23,31 @@ public record ListingResponse(
     String userName,
     String userEmail,
     Instant createdAt,
-    Instant updatedAt
+    Instant updatedAt,
+    // Only the images whose derivatives are ready, clients fall back to imageUrls
+    List<ImageVariantsResponse> imageVariants
 ) {
+    /**
+     * SQL fragment selecting the image variants of listing l as a flat text[] of
+     * (original, card, detail, zoom) groups, read back with ImageVariantsResponse.fromSqlArray.
+     * Hibernate cannot read multidimensional arrays from native queries.
+     */
+    public static final String IMAGE_VARIANTS_SQL = """
+            ARRAY(SELECT u.url
+                  FROM listing_images li
+                  JOIN image_variants v ON v.image_url = li.image_url
+                  CROSS JOIN LATERAL unnest(ARRAY[v.image_url, v.card_url, v.detail_url, v.zoom_url])
+                      WITH ORDINALITY AS u(url, ord)
+                  WHERE li.listing_id = l.id
+                  ORDER BY v.image_url, u.ord)""";
+
     public static ListingResponse from(Listing listing) {
         // Récupérer les informations de l'utilisateur
         User user = User.findById(listing.userId);
+        return from(listing, user, ImageVariant.findByImageUrls(listing.imageUrls));
+    }
+
+    public static ListingResponse from(Listing listing, User user, Map<String, ImageVariant> variants) {
         String userName = user != null ? user.name : "Utilisateur inconnu";
         String userEmail = user != null ? user.email : null;
         
@@ -39,8 +63,32 @@ public record ListingResponse(
             userName,
             userEmail,
             listing.createdAt,
-            listing.updatedAt
+            listing.updatedAt,
+            listing.imageUrls.stream()
+                .map(variants::get)
+                .filter(variant -> variant != null)
+                .map(ImageVariantsResponse::from)
+                .toList()
         );
     }
-}
 
+    /**
+     * Map a batch of listings, loading all their sellers and image variants with IN queries
+     * (one per thousand ids) instead of lookups per listing. Order of the input is preserved.
+     */
+    public static List<ListingResponse> fromAll(Collection<Listing> listings) {
+        if (listings.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, User> sellers = User.findByIds(listings.stream()
+            .map(listing -> listing.userId)
+            .collect(Collectors.toSet()));
+        Map<String, ImageVariant> variants = ImageVariant.findByImageUrls(listings.stream()
+            .flatMap(listing -> listing.imageUrls.stream())
+            .collect(Collectors.toSet()));
+        return listings.stream()
+            .map(listing -> from(listing, sellers.get(listing.userId), variants))
+            .toList();
+    }
+}
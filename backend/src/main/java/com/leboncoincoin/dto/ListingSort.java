@@ -0,0 +1,23 @@
+package com.leboncoincoin.dto;
+
+/**
+ * Sort order for listing search results
+ */
+public enum ListingSort {
+    DATE,
+    RELEVANCE;
+
+    /**
+     * Parse the sort query parameter, defaults to DATE when absent
+     */
+    public static ListingSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return DATE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.leboncoincoin.dto;
+
+import com.leboncoincoin.entity.Message;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position in a conversation, ordered by (sentAt, id).
+ * Exposed to clients as an opaque base64url token.
+ */
+public record MessageCursor(
+    LocalDateTime sentAt,
+    String id
+) {
+    public static MessageCursor at(Message message) {
+        return new MessageCursor(message.sentAt, message.id);
+    }
+
+    public String encode() {
+        return Pagination.encodeCursor(sentAt, id);
+    }
+
+    /**
+     * Decode a cursor token, returns null for a blank token
+     */
+    public static MessageCursor decode(String token) {
+        return Pagination.decodeCursor(token,
+                (position, id) -> new MessageCursor(LocalDateTime.parse(position), id));
+    }
+}
@@ -0,0 +1,36 @@
+package com.leboncoincoin.dto;
+
+import com.leboncoincoin.entity.Conversation;
+import com.leboncoincoin.entity.Message;
+
+import java.util.List;
+
+/**
+ * One page of a conversation, newest message first.
+ * previousCursor loads older messages (as "before"), null once the first message is reached.
+ * nextCursor loads newer messages (as "after"), it stays valid when nothing new arrived yet.
+ */
+public record MessagePage(
+    List<MessageResponse> items,
+    String previousCursor,
+    String nextCursor
+) {
+    /**
+     * Build a page from rows fetched newest first, limit + 1 of them when older messages
+     * may remain, the extra row only tells whether they do
+     */
+    public static MessagePage of(List<Message> newestFirst, int limit, boolean olderKnown, MessageCursor after,
+                                 Conversation conversation) {
+        boolean hasOlder = olderKnown || newestFirst.size() > limit;
+        List<Message> rows = newestFirst.size() > limit ? newestFirst.subList(0, limit) : newestFirst;
+        if (rows.isEmpty()) {
+            return new MessagePage(List.of(), null, after != null ? after.encode() : null);
+        }
+
+        return new MessagePage(
+            rows.stream().map(message -> MessageResponse.from(message, conversation)).toList(),
+            hasOlder ? MessageCursor.at(rows.get(rows.size() - 1)).encode() : null,
+            MessageCursor.at(rows.get(0)).encode()
+        );
+    }
+}
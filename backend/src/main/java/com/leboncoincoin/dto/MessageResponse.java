@@ -1,5 +1,6 @@
 package com.leboncoincoin.dto;
 
+import com.leboncoincoin.entity.Conversation;
 import com.leboncoincoin.entity.Message;
 import java.time.LocalDateTime;
 
@@ -11,16 +12,28 @@ public record MessageResponse(
     LocalDateTime sentAt,
     boolean isRead
 ) {
+    /**
+     * Response for a message just sent, not read yet
+     */
     public static MessageResponse from(Message message) {
+        return from(message, false);
+    }
+
+    /**
+     * Response with the read state from the conversation watermarks
+     */
+    public static MessageResponse from(Message message, Conversation conversation) {
+        return from(message, conversation.hasBeenRead(message));
+    }
+
+    public static MessageResponse from(Message message, boolean isRead) {
         return new MessageResponse(
             message.id,
             message.conversation.id,
             message.senderId,
             message.content,
             message.sentAt,
-            message.isRead
+            isRead
         );
     }
 }
-
-
@@ -0,0 +1,58 @@
+package com.leboncoincoin.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.function.BiFunction;
+
+/**
+ * Page size validation and the keyset cursor token shared by the paginated endpoints.
+ * A cursor is "position|id" encoded as unpadded base64url, opaque to clients.
+ */
+public final class Pagination {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final char SEPARATOR = '|';
+
+    private Pagination() {
+    }
+
+    /**
+     * The requested limit, or the endpoint's default when none was given
+     */
+    public static int pageSize(Integer limit, int defaultPageSize) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    static String encodeCursor(Object position, String id) {
+        String raw = position.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor token with the given (position, id) factory, returns null for a blank token
+     */
+    static <T> T decodeCursor(String token, BiFunction<String, String, T> cursor) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return cursor.apply(raw.substring(0, separator), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.leboncoincoin.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record PresignedUrlsRequest(
+    @NotEmpty(message = "At least one file is required")
+    @Size(max = MAX_FILES, message = "At most " + MAX_FILES + " files per request")
+    List<@Valid @NotNull PresignedUrlRequest> files
+) {
+    /**
+     * Same as the image limit of a listing
+     */
+    public static final int MAX_FILES = 10;
+}
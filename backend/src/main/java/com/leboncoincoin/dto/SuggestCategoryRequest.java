@@ -0,0 +1,12 @@
+package com.leboncoincoin.dto;
+
+import jakarta.validation.constraints.Size;
+
+public record SuggestCategoryRequest(
+    @Size(max = 100, message = "Title must not exceed 100 characters")
+    String title,
+
+    @Size(max = 5000, message = "Description must not exceed 5000 characters")
+    String description
+) {
+}
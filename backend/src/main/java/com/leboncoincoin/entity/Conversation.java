@@ -29,6 +29,38 @@ public class Conversation extends PanacheEntityBase {
     @Column(name = "updated_at", nullable = false)
     public LocalDateTime updatedAt;
 
+    // Inbox summary, written only by ConversationRepository with atomic SQL updates
+    @Column(name = "last_message_id", length = 36, updatable = false)
+    public String lastMessageId;
+
+    @Column(name = "last_message_sender_id", length = 255, updatable = false)
+    public String lastMessageSenderId;
+
+    @Column(name = "last_message_preview", length = 200, updatable = false)
+    public String lastMessagePreview;
+
+    @Column(name = "last_message_at", updatable = false)
+    public LocalDateTime lastMessageAt;
+
+    @Column(name = "buyer_unread_count", nullable = false, updatable = false)
+    public int buyerUnreadCount;
+
+    @Column(name = "seller_unread_count", nullable = false, updatable = false)
+    public int sellerUnreadCount;
+
+    // Read watermarks: every message up to (lastReadAt, lastReadMessageId) was read by that participant
+    @Column(name = "buyer_last_read_at", updatable = false)
+    public LocalDateTime buyerLastReadAt;
+
+    @Column(name = "buyer_last_read_message_id", length = 36, updatable = false)
+    public String buyerLastReadMessageId;
+
+    @Column(name = "seller_last_read_at", updatable = false)
+    public LocalDateTime sellerLastReadAt;
+
+    @Column(name = "seller_last_read_message_id", length = 36, updatable = false)
+    public String sellerLastReadMessageId;
+
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     public List<Message> messages;
 
@@ -43,6 +75,20 @@ public class Conversation extends PanacheEntityBase {
         updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Whether the recipient of the message has read it, i.e. it is at or before their watermark
+     */
+    public boolean hasBeenRead(Message message) {
+        boolean sentByBuyer = message.senderId.equals(buyerId);
+        LocalDateTime readAt = sentByBuyer ? sellerLastReadAt : buyerLastReadAt;
+        String readMessageId = sentByBuyer ? sellerLastReadMessageId : buyerLastReadMessageId;
+        if (readAt == null) {
+            return false;
+        }
+        int comparison = message.sentAt.compareTo(readAt);
+        return comparison < 0 || (comparison == 0 && message.id.compareTo(readMessageId) <= 0);
+    }
+
     // Finder methods
     public static List<Conversation> findByUserId(String userId) {
         return list("buyerId = ?1 OR sellerId = ?1 ORDER BY updatedAt DESC", userId);
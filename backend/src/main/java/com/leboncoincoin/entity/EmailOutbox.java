@@ -0,0 +1,60 @@
+package com.leboncoincoin.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Rendered email waiting for delivery, written in the transaction that triggered it.
+ * Claimed and updated with native statements by EmailOutboxRepository.
+ */
+@Entity
+@Table(name = "email_outbox")
+public class EmailOutbox extends PanacheEntityBase {
+
+    public enum Status {
+        PENDING,
+        SENT,
+        FAILED
+    }
+
+    @Id
+    @Column(name = "id", nullable = false, length = 36)
+    public String id;
+
+    // Template the email was rendered from ("welcome", "contact"...)
+    @Column(name = "type", nullable = false, length = 50)
+    public String type;
+
+    @Column(name = "recipient", nullable = false, length = 255)
+    public String recipient;
+
+    @Column(name = "subject", nullable = false, length = 500)
+    public String subject;
+
+    @Column(name = "html_body", nullable = false, columnDefinition = "TEXT")
+    public String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    public Status status;
+
+    @Column(name = "attempts", nullable = false)
+    public int attempts;
+
+    // Claimed emails are pushed forward by the lease, so a crashed sender's email comes back
+    @Column(name = "next_attempt_at", nullable = false)
+    public LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    public String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    public LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    public LocalDateTime sentAt;
+
+    @Column(name = "updated_at", nullable = false)
+    public LocalDateTime updatedAt;
+}
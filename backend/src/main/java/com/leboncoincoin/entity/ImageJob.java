@@ -0,0 +1,47 @@
+package com.leboncoincoin.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Persistent queue entry for the derivatives of one uploaded image.
+ * Claimed and updated with native statements by ImageJobRepository.
+ */
+@Entity
+@Table(name = "image_jobs")
+public class ImageJob extends PanacheEntityBase {
+
+    public enum Status {
+        PENDING,
+        DONE,
+        FAILED
+    }
+
+    @Id
+    @Column(name = "id", nullable = false, length = 36)
+    public String id;
+
+    @Column(name = "image_url", nullable = false, unique = true, length = 500)
+    public String imageUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    public Status status;
+
+    @Column(name = "attempts", nullable = false)
+    public int attempts;
+
+    // Claimed jobs are pushed forward by the lease, so a crashed worker's job comes back
+    @Column(name = "next_attempt_at", nullable = false)
+    public LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    public String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    public LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    public LocalDateTime updatedAt;
+}
@@ -0,0 +1,54 @@
+package com.leboncoincoin.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Resized copies of an uploaded listing image, written by ImageDerivativeJob
+ */
+@Entity
+@Table(name = "image_variants")
+public class ImageVariant extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "image_url", nullable = false, length = 500)
+    public String imageUrl;
+
+    @Column(name = "card_url", nullable = false, length = 500)
+    public String cardUrl;
+
+    @Column(name = "detail_url", nullable = false, length = 500)
+    public String detailUrl;
+
+    @Column(name = "zoom_url", nullable = false, length = 500)
+    public String zoomUrl;
+
+    @Column(name = "created_at", nullable = false)
+    public Instant createdAt;
+
+    public ImageVariant() {
+    }
+
+    public ImageVariant(String imageUrl, String cardUrl, String detailUrl, String zoomUrl) {
+        this.imageUrl = imageUrl;
+        this.cardUrl = cardUrl;
+        this.detailUrl = detailUrl;
+        this.zoomUrl = zoomUrl;
+        this.createdAt = Instant.now();
+    }
+
+    // Finder methods
+    public static Map<String, ImageVariant> findByImageUrls(Collection<String> imageUrls) {
+        if (imageUrls == null || imageUrls.isEmpty()) {
+            return Map.of();
+        }
+        return InLists.chunks(imageUrls).stream()
+                .flatMap(chunk -> ImageVariant.<ImageVariant>list("imageUrl IN ?1", chunk).stream())
+                .collect(Collectors.toMap(variant -> variant.imageUrl, Function.identity()));
+    }
+}
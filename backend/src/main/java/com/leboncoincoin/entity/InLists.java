@@ -0,0 +1,26 @@
+package com.leboncoincoin.entity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Splits the values bound to an IN (...) clause. PostgreSQL accepts at most 32767 bind
+ * parameters per statement, so large lookups run as one query per chunk.
+ */
+final class InLists {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private InLists() {
+    }
+
+    static <T> List<List<T>> chunks(Collection<T> values) {
+        List<T> all = new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + CHUNK_SIZE, all.size())));
+        }
+        return chunks;
+    }
+}
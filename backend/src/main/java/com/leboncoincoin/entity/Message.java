@@ -1,6 +1,8 @@
 package com.leboncoincoin.entity;
 
+import com.leboncoincoin.dto.MessageCursor;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import io.quarkus.panache.common.Sort;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,6 +29,7 @@ public class Message extends PanacheEntityBase {
     @Column(name = "sent_at", nullable = false, updatable = false)
     public LocalDateTime sentAt;
 
+    // Legacy per-message flag, read state now comes from the conversation watermarks
     @Column(name = "is_read", nullable = false)
     public boolean isRead;
 
@@ -43,8 +46,29 @@ public class Message extends PanacheEntityBase {
         return list("conversation.id = ?1 ORDER BY sentAt ASC", conversationId);
     }
 
-    public static long countUnreadByUserId(String userId) {
-        return count("conversation.buyerId = ?1 OR conversation.sellerId = ?1 AND isRead = false", userId);
+    /**
+     * Newest messages first, strictly older than the cursor when given (keyset on sentAt, id)
+     */
+    public static List<Message> findPageBefore(String conversationId, MessageCursor before, int limit) {
+        if (before == null) {
+            return find("conversation.id = ?1", Sort.descending("sentAt", "id"), conversationId)
+                    .range(0, limit - 1)
+                    .list();
+        }
+        return find("conversation.id = ?1 AND (sentAt < ?2 OR (sentAt = ?2 AND id < ?3))",
+                Sort.descending("sentAt", "id"), conversationId, before.sentAt(), before.id())
+                .range(0, limit - 1)
+                .list();
+    }
+
+    /**
+     * Oldest messages first, strictly newer than the cursor (keyset on sentAt, id)
+     */
+    public static List<Message> findPageAfter(String conversationId, MessageCursor after, int limit) {
+        return find("conversation.id = ?1 AND (sentAt > ?2 OR (sentAt = ?2 AND id > ?3))",
+                Sort.ascending("sentAt", "id"), conversationId, after.sentAt(), after.id())
+                .range(0, limit - 1)
+                .list();
     }
 }
 
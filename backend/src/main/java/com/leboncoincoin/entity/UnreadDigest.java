@@ -0,0 +1,25 @@
+package com.leboncoincoin.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Per-user high-water mark of the unread-message digest, advanced by UnreadDigestRepository
+ * when a digest is queued
+ */
+@Entity
+@Table(name = "unread_digests")
+public class UnreadDigest extends PanacheEntityBase {
+
+    @Id
+    @Column(name = "user_id", nullable = false, length = 255)
+    public String userId;
+
+    // Messages sent up to this instant were already notified
+    @Column(name = "notified_until", nullable = false)
+    public LocalDateTime notifiedUntil;
+
+    @Column(name = "sent_at", nullable = false)
+    public LocalDateTime sentAt;
+}
@@ -3,7 +3,11 @@ package com.leboncoincoin.entity;
 import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
 import jakarta.persistence.*;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Entity
 @Table(name = "users")
@@ -41,6 +45,16 @@ public class User extends PanacheEntityBase {
         return role == UserRole.ADMIN;
     }
 
+    // Finder methods
+    public static Map<String, User> findByIds(Collection<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        return InLists.chunks(ids).stream()
+                .flatMap(chunk -> User.<User>list("id IN ?1", chunk).stream())
+                .collect(Collectors.toMap(user -> user.id, Function.identity()));
+    }
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
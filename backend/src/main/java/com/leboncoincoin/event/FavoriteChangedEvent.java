@@ -0,0 +1,13 @@
+package com.leboncoincoin.event;
+
+/**
+ * Fired by FavoriteResource when a favorite is added or removed.
+ * Observers interested in committed data should use
+ * {@code @Observes(during = TransactionPhase.AFTER_SUCCESS)}.
+ */
+public record FavoriteChangedEvent(
+    String userId,
+    String listingId,
+    boolean added
+) {
+}
@@ -0,0 +1,37 @@
+package com.leboncoincoin.event;
+
+import com.leboncoincoin.entity.Listing;
+
+import java.util.Set;
+
+/**
+ * Fired by ListingService on every listing write.
+ * Observers interested in committed data should use
+ * {@code @Observes(during = TransactionPhase.AFTER_SUCCESS)}.
+ * On deletion, affectedUserIds holds the users who favorited the listing or took part
+ * in one of its conversations, read in the deleting transaction.
+ */
+public record ListingChangedEvent(
+    Type type,
+    Listing listing,
+    String previousCategory,
+    Set<String> affectedUserIds
+) {
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ListingChangedEvent created(Listing listing) {
+        return new ListingChangedEvent(Type.CREATED, listing, null, Set.of());
+    }
+
+    public static ListingChangedEvent updated(Listing listing, String previousCategory) {
+        return new ListingChangedEvent(Type.UPDATED, listing, previousCategory, Set.of());
+    }
+
+    public static ListingChangedEvent deleted(Listing listing, Set<String> affectedUserIds) {
+        return new ListingChangedEvent(Type.DELETED, listing, null, affectedUserIds);
+    }
+}
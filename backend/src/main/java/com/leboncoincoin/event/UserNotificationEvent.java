@@ -0,0 +1,13 @@
+package com.leboncoincoin.event;
+
+import com.leboncoincoin.notification.UserNotification;
+
+/**
+ * Fired inside a write transaction for each notification to push to a user,
+ * NotificationBroker publishes it once the transaction commits
+ */
+public record UserNotificationEvent(
+    String userId,
+    UserNotification notification
+) {
+}
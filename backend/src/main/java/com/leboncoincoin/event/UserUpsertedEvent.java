@@ -0,0 +1,15 @@
+package com.leboncoincoin.event;
+
+/**
+ * Fired by UserService after ensuring a user row matches the token claims.
+ * created is true only for the request that actually inserted the row.
+ * Observers interested in committed data should use
+ * {@code @Observes(during = TransactionPhase.AFTER_SUCCESS)}.
+ */
+public record UserUpsertedEvent(
+    String userId,
+    String email,
+    String name,
+    boolean created
+) {
+}
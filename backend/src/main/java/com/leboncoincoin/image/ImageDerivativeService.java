@@ -0,0 +1,93 @@
+package com.leboncoincoin.image;
+
+import com.leboncoincoin.entity.ImageVariant;
+import com.leboncoincoin.event.ListingChangedEvent;
+import com.leboncoincoin.repository.ImageJobRepository;
+import com.leboncoincoin.service.S3Service;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Resized JPEG copies of uploaded listing images, stored next to the original in the bucket
+ * ("user/abc.png" gets "user/abc-card.jpg", "user/abc-detail.jpg" and "user/abc-zoom.jpg").
+ * Images are queued when a listing is written and processed by ImageDerivativeJob.
+ */
+@ApplicationScoped
+public class ImageDerivativeService {
+
+    /**
+     * Fixed widths in pixels, images narrower than a size are only re-encoded
+     */
+    public enum Size {
+        CARD(400),
+        DETAIL(1024),
+        ZOOM(2048);
+
+        final int width;
+
+        Size(int width) {
+            this.width = width;
+        }
+
+        String suffix() {
+            return "-" + name().toLowerCase() + ".jpg";
+        }
+    }
+
+    @ConfigProperty(name = "app.images.derivatives.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @Inject
+    S3Service s3Service;
+
+    @Inject
+    ImageJobRepository imageJobRepository;
+
+    /**
+     * Queue the images of created or updated listings, in the listing transaction so a
+     * committed listing always has its jobs. Images outside of our bucket are skipped.
+     */
+    void onListingChanged(@Observes ListingChangedEvent event) {
+        if (!enabled || event.type() == ListingChangedEvent.Type.DELETED) {
+            return;
+        }
+        List<String> imageUrls = event.listing().imageUrls.stream()
+                .filter(imageUrl -> s3Service.objectKeyOf(imageUrl).isPresent())
+                .toList();
+        if (!imageUrls.isEmpty()) {
+            imageJobRepository.enqueue(imageUrls);
+        }
+    }
+
+    /**
+     * Download the original, write every size to the bucket and return their URLs.
+     * Blocking and memory hungry (the original is decoded in full), run on the job workers.
+     */
+    public ImageVariant process(String imageUrl) {
+        String objectKey = s3Service.objectKeyOf(imageUrl)
+                .orElseThrow(() -> new IllegalArgumentException("Image is not in the bucket: " + imageUrl));
+        BufferedImage original = ImageResizer.decode(s3Service.getObject(objectKey));
+
+        String baseKey = stripExtension(objectKey);
+        String[] urls = new String[Size.values().length];
+        for (Size size : Size.values()) {
+            String key = baseKey + size.suffix();
+            s3Service.putObject(key, ImageResizer.encodeJpeg(ImageResizer.resize(original, size.width)), "image/jpeg");
+            urls[size.ordinal()] = s3Service.publicUrlOf(key);
+        }
+        Log.debugf("Generated derivatives of %s (%dx%d)", objectKey, original.getWidth(), original.getHeight());
+        return new ImageVariant(imageUrl, urls[Size.CARD.ordinal()], urls[Size.DETAIL.ordinal()], urls[Size.ZOOM.ordinal()]);
+    }
+
+    static String stripExtension(String objectKey) {
+        int slash = objectKey.lastIndexOf('/');
+        int dot = objectKey.lastIndexOf('.');
+        return dot > slash ? objectKey.substring(0, dot) : objectKey;
+    }
+}
@@ -0,0 +1,63 @@
+package com.leboncoincoin.job;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Fixed pool of daemon threads working through the batches claimed from a lease queue
+ * (image_jobs, email_outbox), and the loop that claims them until the queue is drained.
+ */
+final class BatchWorkers {
+
+    private final ExecutorService executor;
+
+    BatchWorkers(String threadName, int size) {
+        executor = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Run batches until one comes back short, a full batch means more items may be due.
+     * The batch returns the number of items it claimed, the total is returned.
+     */
+    static int drain(int batchSize, IntSupplier batch) {
+        int total = 0;
+        int claimed;
+        do {
+            claimed = batch.getAsInt();
+            total += claimed;
+        } while (claimed == batchSize);
+        return total;
+    }
+
+    /**
+     * Handle every item on the pool and wait for all of them, returns the items handled successfully
+     */
+    <T> List<T> runAll(List<T> items, Predicate<T> handler) {
+        Queue<T> succeeded = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (T item : items) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                if (handler.test(item)) {
+                    succeeded.add(item);
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        return new ArrayList<>(succeeded);
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
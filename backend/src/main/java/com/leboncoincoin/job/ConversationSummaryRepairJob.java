@@ -0,0 +1,56 @@
+package com.leboncoincoin.job;
+
+import com.leboncoincoin.repository.ConversationRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+
+/**
+ * Repairs conversation summaries (last message, unread counters) that drifted from the
+ * messages table, e.g. after a failed write or concurrent updates of the same conversation
+ */
+@ApplicationScoped
+public class ConversationSummaryRepairJob {
+
+    @ConfigProperty(name = "app.messaging.summary-repair.batch-size", defaultValue = "500")
+    int batchSize;
+
+    @Inject
+    ConversationRepository conversationRepository;
+
+    @Scheduled(cron = "{app.messaging.summary-repair.cron}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void run() {
+        repair();
+    }
+
+    /**
+     * Repair one batch of drifted conversations, each in its own short transaction,
+     * returns the number repaired
+     */
+    public int repair() {
+        long start = System.currentTimeMillis();
+        List<String> drifted = QuarkusTransaction.requiringNew()
+                .call(() -> conversationRepository.findDriftedSummaryIds(batchSize));
+
+        int repaired = 0;
+        for (String id : drifted) {
+            try {
+                QuarkusTransaction.requiringNew().run(() -> conversationRepository.repairSummary(id));
+                repaired++;
+            } catch (Exception e) {
+                Log.errorf(e, "Failed to repair summary of conversation %s", id);
+            }
+        }
+
+        if (repaired > 0) {
+            Log.warnf("Repaired %d drifted conversation summaries in %d ms",
+                    repaired, System.currentTimeMillis() - start);
+        }
+        return repaired;
+    }
+}
@@ -0,0 +1,103 @@
+package com.leboncoincoin.job;
+
+import com.leboncoincoin.repository.EmailOutboxRepository;
+import com.leboncoincoin.repository.EmailOutboxRepository.ClaimedEmail;
+import com.leboncoincoin.service.EmailService;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Delivers the email_outbox in batches on a fixed pool of senders, outside of any transaction.
+ * Delivery is at least once: an email sent by a sender that dies before recording it goes out
+ * again after the lease.
+ * Polls on long-lived instances, on Lambda an EventBridge schedule calls JobResource.
+ */
+@ApplicationScoped
+public class EmailOutboxDispatcher {
+
+    @ConfigProperty(name = "app.email.outbox.senders", defaultValue = "4")
+    int senders;
+
+    @ConfigProperty(name = "app.email.outbox.batch-size", defaultValue = "50")
+    int batchSize;
+
+    @ConfigProperty(name = "app.email.outbox.lease", defaultValue = "PT2M")
+    Duration lease;
+
+    @ConfigProperty(name = "app.email.outbox.max-attempts", defaultValue = "8")
+    int maxAttempts;
+
+    @ConfigProperty(name = "app.email.outbox.retry-backoff", defaultValue = "PT30S")
+    Duration retryBackoff;
+
+    @Inject
+    EmailOutboxRepository emailOutboxRepository;
+
+    @Inject
+    EmailService emailService;
+
+    private BatchWorkers pool;
+
+    @PostConstruct
+    void init() {
+        pool = new BatchWorkers("email-outbox", senders);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Scheduled(every = "{app.email.outbox.poll-every}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void run() {
+        drain();
+    }
+
+    /**
+     * Send batches until one comes back short, returns the number of emails claimed.
+     * Also triggered through /api/jobs/email-outbox.
+     */
+    public int drain() {
+        return BatchWorkers.drain(batchSize, this::dispatch);
+    }
+
+    /**
+     * Claim one batch and send it on the senders, returns the number of emails claimed
+     */
+    public int dispatch() {
+        List<ClaimedEmail> emails = QuarkusTransaction.requiringNew()
+                .call(() -> emailOutboxRepository.claim(batchSize, lease));
+        if (emails.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.currentTimeMillis();
+        List<String> sent = pool.runAll(emails, this::send).stream().map(ClaimedEmail::id).toList();
+
+        QuarkusTransaction.requiringNew().run(() -> emailOutboxRepository.markSent(sent));
+        Log.infof("Sent %d/%d emails in %d ms", sent.size(), emails.size(), System.currentTimeMillis() - start);
+        return emails.size();
+    }
+
+    private boolean send(ClaimedEmail email) {
+        try {
+            emailService.deliver(email.recipient(), email.subject(), email.htmlBody());
+            return true;
+        } catch (Exception e) {
+            Log.warnf(e, "Failed to send %s email %s to %s (attempt %d/%d)",
+                    email.type(), email.id(), email.recipient(), email.attempts(), maxAttempts);
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            QuarkusTransaction.requiringNew().run(() -> emailOutboxRepository.fail(email, error, maxAttempts, retryBackoff));
+            return false;
+        }
+    }
+}
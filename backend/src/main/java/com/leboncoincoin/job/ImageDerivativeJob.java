@@ -0,0 +1,105 @@
+package com.leboncoincoin.job;
+
+import com.leboncoincoin.entity.ImageVariant;
+import com.leboncoincoin.image.ImageDerivativeService;
+import com.leboncoincoin.repository.ImageJobRepository;
+import com.leboncoincoin.repository.ImageJobRepository.ClaimedJob;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Drains the image_jobs queue on a fixed pool of workers. Jobs live in the database, so
+ * queued and interrupted work resumes after a restart (claims expire after the lease).
+ * Polls on long-lived instances, on Lambda an EventBridge schedule calls JobResource.
+ */
+@ApplicationScoped
+public class ImageDerivativeJob {
+
+    @ConfigProperty(name = "app.images.derivatives.workers", defaultValue = "2")
+    int workers;
+
+    @ConfigProperty(name = "app.images.derivatives.batch-size", defaultValue = "8")
+    int batchSize;
+
+    @ConfigProperty(name = "app.images.derivatives.lease", defaultValue = "PT5M")
+    Duration lease;
+
+    @ConfigProperty(name = "app.images.derivatives.max-attempts", defaultValue = "5")
+    int maxAttempts;
+
+    @ConfigProperty(name = "app.images.derivatives.retry-backoff", defaultValue = "PT1M")
+    Duration retryBackoff;
+
+    @Inject
+    ImageJobRepository imageJobRepository;
+
+    @Inject
+    ImageDerivativeService imageDerivativeService;
+
+    private BatchWorkers pool;
+
+    @PostConstruct
+    void init() {
+        pool = new BatchWorkers("image-derivatives", workers);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Scheduled(every = "{app.images.derivatives.poll-every}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void run() {
+        drain();
+    }
+
+    /**
+     * Process batches until one comes back short, returns the number of jobs claimed.
+     * Also triggered through /api/jobs/image-derivatives.
+     */
+    public int drain() {
+        return BatchWorkers.drain(batchSize, this::process);
+    }
+
+    /**
+     * Claim one batch and process it on the workers, returns the number of jobs claimed
+     */
+    public int process() {
+        List<ClaimedJob> jobs = QuarkusTransaction.requiringNew()
+                .call(() -> imageJobRepository.claim(batchSize, lease));
+        if (jobs.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.currentTimeMillis();
+        int done = pool.runAll(jobs, this::processJob).size();
+        Log.infof("Generated derivatives of %d/%d images in %d ms",
+                done, jobs.size(), System.currentTimeMillis() - start);
+        return jobs.size();
+    }
+
+    private boolean processJob(ClaimedJob job) {
+        try {
+            ImageVariant variant = imageDerivativeService.process(job.imageUrl());
+            QuarkusTransaction.requiringNew().run(() -> imageJobRepository.complete(job.id(), variant));
+            return true;
+        } catch (Exception e) {
+            Log.warnf(e, "Failed to generate derivatives of %s (attempt %d/%d)", job.imageUrl(), job.attempts(), maxAttempts);
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            // Not an image we can decode or not in our bucket, retrying will not help
+            boolean permanent = e instanceof IllegalArgumentException;
+            QuarkusTransaction.requiringNew().run(() ->
+                    imageJobRepository.fail(job, error, permanent, maxAttempts, retryBackoff));
+            return false;
+        }
+    }
+}
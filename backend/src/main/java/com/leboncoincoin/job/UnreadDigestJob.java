@@ -0,0 +1,111 @@
+package com.leboncoincoin.job;
+
+import com.leboncoincoin.repository.UnreadDigestRepository;
+import com.leboncoincoin.repository.UnreadDigestRepository.UnreadConversation;
+import com.leboncoincoin.service.EmailService;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Emails one digest per user with messages left unread for longer than the delay.
+ * Each user's high-water mark moves in the transaction that queues the digest,
+ * so a message is notified at most once, even with several instances running the job.
+ * Runs on a schedule on long-lived instances, on Lambda an EventBridge schedule calls JobResource.
+ */
+@ApplicationScoped
+public class UnreadDigestJob {
+
+    @ConfigProperty(name = "app.messaging.digest.delay", defaultValue = "PT30M")
+    Duration delay;
+
+    @ConfigProperty(name = "app.messaging.digest.batch-size", defaultValue = "200")
+    int batchSize;
+
+    @ConfigProperty(name = "app.messaging.digest.max-conversations", defaultValue = "5")
+    int maxConversations;
+
+    @ConfigProperty(name = "app.email.app-url", defaultValue = "http://localhost:5173")
+    String appUrl;
+
+    @Inject
+    UnreadDigestRepository unreadDigestRepository;
+
+    @Inject
+    EmailService emailService;
+
+    @Scheduled(every = "{app.messaging.digest.every}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void run() {
+        drain();
+    }
+
+    /**
+     * Process batches until one comes back short, returns the number of recipients found.
+     * Also triggered through /api/jobs/unread-digest.
+     */
+    public int drain() {
+        // Notified users drop out of the query, a full batch means more may be due
+        int total = 0;
+        int recipients;
+        do {
+            recipients = process();
+            total += recipients;
+        } while (recipients == batchSize);
+        return total;
+    }
+
+    /**
+     * Queue the digests of one batch of recipients in a single transaction,
+     * returns the number of recipients found
+     */
+    public int process() {
+        long start = System.currentTimeMillis();
+        int[] queued = new int[1];
+        int recipients = QuarkusTransaction.requiringNew().call(() -> {
+            Map<String, List<UnreadConversation>> byRecipient = unreadDigestRepository.findDue(delay, batchSize)
+                    .stream()
+                    .collect(Collectors.groupingBy(UnreadConversation::userId, LinkedHashMap::new, Collectors.toList()));
+            for (List<UnreadConversation> conversations : byRecipient.values()) {
+                if (queue(conversations)) {
+                    queued[0]++;
+                }
+            }
+            return byRecipient.size();
+        });
+
+        if (queued[0] > 0) {
+            Log.infof("Queued %d unread-message digests in %d ms", queued[0], System.currentTimeMillis() - start);
+        }
+        return recipients;
+    }
+
+    private boolean queue(List<UnreadConversation> conversations) {
+        UnreadConversation first = conversations.get(0);
+        LocalDateTime notifiedUntil = conversations.stream()
+                .map(UnreadConversation::lastSentAt)
+                .max(LocalDateTime::compareTo)
+                .orElseThrow();
+        if (!unreadDigestRepository.advance(first.userId(), notifiedUntil)) {
+            return false;
+        }
+
+        long unreadCount = conversations.stream().mapToLong(UnreadConversation::unreadCount).sum();
+        List<UnreadConversation> shown = conversations.subList(0, Math.min(conversations.size(), maxConversations));
+        String subject = unreadCount == 1
+                ? "Vous avez un nouveau message"
+                : "Vous avez " + unreadCount + " nouveaux messages";
+        emailService.queue("digest", first.email(), subject, EmailService.Templates.digest(
+                first.userName(), unreadCount, shown, conversations.size() - shown.size(), appUrl));
+        return true;
+    }
+}
@@ -0,0 +1,110 @@
+package com.leboncoincoin.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the SQL statements of each resource method call, to catch N+1 regressions.
+ * Every request records http.server.requests.queries and http.server.requests.jdbc per route;
+ * requests over the budget of their route are logged and counted in
+ * http.server.requests.query-budget.exceeded. With expose-headers, the count and the JDBC time
+ * are returned in X-Query-Count and Server-Timing.
+ */
+@ApplicationScoped
+public class QueryBudgetFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @ConfigProperty(name = "app.query-budget.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.query-budget.max-queries", defaultValue = "10")
+    int maxQueries;
+
+    // "METHOD /route/{param}=max" entries overriding max-queries
+    @ConfigProperty(name = "app.query-budget.routes")
+    Optional<List<String>> routeBudgets;
+
+    @ConfigProperty(name = "app.query-budget.expose-headers", defaultValue = "false")
+    boolean exposeHeaders;
+
+    @Inject
+    RequestQueryStats stats;
+
+    @Inject
+    MeterRegistry registry;
+
+    private Map<String, Integer> budgets;
+
+    @PostConstruct
+    void init() {
+        budgets = parseBudgets(routeBudgets.orElse(List.of()));
+    }
+
+    @ServerRequestFilter
+    public void onRequest() {
+        // Post-matching, so statements of the authentication (role lookup) are not counted
+        if (enabled) {
+            stats.start();
+        }
+    }
+
+    @ServerResponseFilter
+    public void onResponse(ContainerRequestContext request, ContainerResponseContext response) {
+        if (!enabled || !stats.isStarted()) {
+            return;
+        }
+        String route = RouteMetricsFilter.currentRoute(request);
+        if (route == null) {
+            return;
+        }
+
+        String method = request.getMethod();
+        int statements = stats.statements();
+        long jdbcNanos = stats.jdbcNanos();
+        registry.summary("http.server.requests.queries", "method", method, "route", route).record(statements);
+        registry.timer("http.server.requests.jdbc", "method", method, "route", route)
+                .record(jdbcNanos, TimeUnit.NANOSECONDS);
+
+        int budget = budgets.getOrDefault(method + " " + route, maxQueries);
+        if (statements > budget) {
+            registry.counter("http.server.requests.query-budget.exceeded", "method", method, "route", route).increment();
+            Log.warnf("%s %s ran %d SQL statements (budget %d) in %.1f ms of JDBC time",
+                    method, route, statements, budget, jdbcNanos / 1e6);
+        }
+
+        if (exposeHeaders) {
+            response.getHeaders().putSingle(QUERY_COUNT_HEADER, String.valueOf(statements));
+            response.getHeaders().add(SERVER_TIMING_HEADER,
+                    String.format(Locale.ROOT, "db;desc=\"%d queries\";dur=%.1f", statements, jdbcNanos / 1e6));
+        }
+    }
+
+    static Map<String, Integer> parseBudgets(List<String> entries) {
+        Map<String, Integer> budgets = new HashMap<>();
+        for (String entry : entries) {
+            int separator = entry.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Query budget must be \"METHOD /route=max\": " + entry);
+            }
+            budgets.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return budgets;
+    }
+}
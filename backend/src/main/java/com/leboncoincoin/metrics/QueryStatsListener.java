@@ -0,0 +1,54 @@
+package com.leboncoincoin.metrics;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts the statements of each session and times their execution into the RequestQueryStats
+ * of the request that opened the session. Instantiated by Hibernate for every session
+ * (hibernate.session.events.auto), sessions opened outside of a request are not tracked.
+ */
+public class QueryStatsListener implements SessionEventListener {
+
+    private final transient RequestQueryStats stats;
+    private long executeStart;
+
+    public QueryStatsListener() {
+        ArcContainer container = Arc.container();
+        stats = container != null && container.requestContext().isActive()
+                ? container.instance(RequestQueryStats.class).get()
+                : null;
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        if (stats != null) {
+            stats.statementPrepared();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        if (stats != null) {
+            stats.jdbcTime(System.nanoTime() - executeStart);
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        if (stats != null) {
+            stats.jdbcTime(System.nanoTime() - executeStart);
+        }
+    }
+}
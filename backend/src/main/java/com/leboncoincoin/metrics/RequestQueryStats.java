@@ -0,0 +1,45 @@
+package com.leboncoincoin.metrics;
+
+import jakarta.enterprise.context.RequestScoped;
+
+/**
+ * SQL statements run by the current HTTP request and the time spent executing them,
+ * collected by QueryStatsListener once QueryBudgetFilter has started the request
+ */
+@RequestScoped
+public class RequestQueryStats {
+
+    private boolean started;
+    private int statements;
+    private long jdbcNanos;
+
+    void start() {
+        started = true;
+        statements = 0;
+        jdbcNanos = 0;
+    }
+
+    boolean isStarted() {
+        return started;
+    }
+
+    void statementPrepared() {
+        if (started) {
+            statements++;
+        }
+    }
+
+    void jdbcTime(long nanos) {
+        if (started) {
+            jdbcNanos += nanos;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long jdbcNanos() {
+        return jdbcNanos;
+    }
+}
@@ -0,0 +1,81 @@
+package com.leboncoincoin.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import org.jboss.resteasy.reactive.server.ServerRequestFilter;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Requests in flight per resource method, as http.server.requests.active{method, route}.
+ * Request count and latency per route and status come from the Quarkus HTTP binder
+ * (http.server.requests). Only matched resource methods are counted.
+ */
+@ApplicationScoped
+public class RouteMetricsFilter {
+
+    static final String ROUTE_PROPERTY = RouteMetricsFilter.class.getName() + ".route";
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<Method, String> routes = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    @ServerRequestFilter
+    public void onRequest(ContainerRequestContext request, ResourceInfo resource) {
+        String route = routeOf(resource);
+        request.setProperty(ROUTE_PROPERTY, route);
+        inFlight(request.getMethod(), route).incrementAndGet();
+    }
+
+    @ServerResponseFilter
+    public void onResponse(ContainerRequestContext request) {
+        if (request.getProperty(ROUTE_PROPERTY) instanceof String route) {
+            inFlight(request.getMethod(), route).decrementAndGet();
+        }
+    }
+
+    /**
+     * Path template of the matched resource method ("/listings/{id}"), or null outside of a resource method
+     */
+    public static String currentRoute(ContainerRequestContext request) {
+        return request.getProperty(ROUTE_PROPERTY) instanceof String route ? route : null;
+    }
+
+    private String routeOf(ResourceInfo resource) {
+        return routes.computeIfAbsent(resource.getResourceMethod(), method -> {
+            Path classPath = resource.getResourceClass().getAnnotation(Path.class);
+            Path methodPath = method.getAnnotation(Path.class);
+            String route = (classPath != null ? normalize(classPath.value()) : "")
+                    + (methodPath != null ? normalize(methodPath.value()) : "");
+            return route.isEmpty() ? "/" : route;
+        });
+    }
+
+    private AtomicInteger inFlight(String method, String route) {
+        return inFlight.computeIfAbsent(method + " " + route, key -> {
+            AtomicInteger count = new AtomicInteger();
+            Gauge.builder("http.server.requests.active", count, AtomicInteger::get)
+                    .description("Requests being processed by a resource method")
+                    .tag("method", method)
+                    .tag("route", route)
+                    .register(registry);
+            return count;
+        });
+    }
+
+    private static String normalize(String path) {
+        String trimmed = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        return trimmed.isEmpty() || trimmed.startsWith("/") ? trimmed : "/" + trimmed;
+    }
+}
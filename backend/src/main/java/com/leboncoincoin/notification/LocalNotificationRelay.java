@@ -0,0 +1,27 @@
+package com.leboncoincoin.notification;
+
+import io.quarkus.arc.lookup.LookupUnlessProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Delivers notifications to the streams of this instance only
+ */
+@ApplicationScoped
+@LookupUnlessProperty(name = "app.notifications.relay", stringValue = "postgres")
+public class LocalNotificationRelay implements NotificationRelay {
+
+    private volatile BiConsumer<String, UserNotification> deliver = (userId, notification) -> {
+    };
+
+    @Override
+    public void start(BiConsumer<String, UserNotification> deliver) {
+        this.deliver = deliver;
+    }
+
+    @Override
+    public void publish(String userId, UserNotification notification) {
+        deliver.accept(userId, notification);
+    }
+}
@@ -0,0 +1,69 @@
+package com.leboncoincoin.notification;
+
+import com.leboncoincoin.dto.MessageResponse;
+import com.leboncoincoin.entity.Conversation;
+import com.leboncoincoin.entity.Message;
+import com.leboncoincoin.event.UserNotificationEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Turns message writes into user notifications. Called inside the write transaction with the
+ * unread total returned by the conversation summary update, so unread counts include the write.
+ */
+@ApplicationScoped
+public class MessagingNotifier {
+
+    @Inject
+    Event<UserNotificationEvent> notifications;
+
+    /**
+     * New message to both participants (other devices of the sender included),
+     * new unread count to the recipient
+     */
+    public void messageSent(Conversation conversation, Message message, long recipientUnread) {
+        UserNotification newMessage = UserNotification.newMessage(MessageResponse.from(message));
+        for (String participant : participants(conversation)) {
+            notify(participant, newMessage);
+            if (!participant.equals(message.senderId)) {
+                notify(participant, UserNotification.unreadCount(recipientUnread));
+            }
+        }
+    }
+
+    /**
+     * Read receipt to the sender, new unread count to the recipient
+     */
+    public void messageRead(Conversation conversation, Message message, long readerUnread) {
+        notify(message.senderId, UserNotification.readReceipt(conversation.id, message.id));
+        for (String participant : participants(conversation)) {
+            if (!participant.equals(message.senderId)) {
+                notify(participant, UserNotification.unreadCount(readerUnread));
+            }
+        }
+    }
+
+    /**
+     * Read receipt to the other participant, new unread count to the reader
+     */
+    public void conversationRead(Conversation conversation, String readerId, long readerUnread) {
+        for (String participant : participants(conversation)) {
+            if (!participant.equals(readerId)) {
+                notify(participant, UserNotification.readReceipt(conversation.id, null));
+            }
+        }
+        notify(readerId, UserNotification.unreadCount(readerUnread));
+    }
+
+    private void notify(String userId, UserNotification notification) {
+        notifications.fire(new UserNotificationEvent(userId, notification));
+    }
+
+    private static List<String> participants(Conversation conversation) {
+        return Stream.of(conversation.buyerId, conversation.sellerId).distinct().toList();
+    }
+}
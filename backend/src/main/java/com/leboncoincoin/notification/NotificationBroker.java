@@ -0,0 +1,81 @@
+package com.leboncoincoin.notification;
+
+import com.leboncoincoin.event.UserNotificationEvent;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process fan-out of user notifications to the open streams of this instance.
+ * Committed notifications go through the NotificationRelay, which delivers them
+ * back here on every instance.
+ */
+@ApplicationScoped
+public class NotificationBroker {
+
+    @ConfigProperty(name = "app.notifications.heartbeat", defaultValue = "PT25S")
+    Duration heartbeat;
+
+    @Inject
+    Instance<NotificationRelay> relays;
+
+    private final Map<String, Set<MultiEmitter<? super UserNotification>>> subscribers = new ConcurrentHashMap<>();
+    private volatile NotificationRelay relay;
+
+    void onStart(@Observes StartupEvent event) {
+        relay = relays.get();
+        relay.start(this::deliver);
+        Log.infof("Notification broker started with %s", relay.getClass().getSimpleName());
+    }
+
+    /**
+     * Stream of the user's notifications, with periodic heartbeats keeping proxies from
+     * closing idle connections. Events are dropped for a client that does not keep up.
+     */
+    public Multi<UserNotification> subscribe(String userId) {
+        Multi<UserNotification> events = Multi.createFrom().emitter(emitter -> {
+            subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(emitter);
+            emitter.onTermination(() -> unsubscribe(userId, emitter));
+        }, BackPressureStrategy.DROP);
+        Multi<UserNotification> heartbeats = Multi.createFrom().ticks().startingAfter(heartbeat).every(heartbeat)
+                .map(tick -> UserNotification.heartbeat());
+        return Multi.createBy().merging().streams(events, heartbeats);
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    void onNotification(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserNotificationEvent event) {
+        if (relay != null) {
+            relay.publish(event.userId(), event.notification());
+        }
+    }
+
+    void deliver(String userId, UserNotification notification) {
+        Set<MultiEmitter<? super UserNotification>> emitters = subscribers.get(userId);
+        if (emitters != null) {
+            emitters.forEach(emitter -> emitter.emit(notification));
+        }
+    }
+
+    private void unsubscribe(String userId, MultiEmitter<? super UserNotification> emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.leboncoincoin.notification;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Transport between publishers and the instances holding the user streams.
+ * Selected with app.notifications.relay: "local" (single instance) or "postgres" (LISTEN/NOTIFY).
+ */
+public interface NotificationRelay {
+
+    /**
+     * Start relaying, every published notification ends up in deliver(userId, notification)
+     * on each instance
+     */
+    void start(BiConsumer<String, UserNotification> deliver);
+
+    void publish(String userId, UserNotification notification);
+}
@@ -0,0 +1,153 @@
+package com.leboncoincoin.notification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leboncoincoin.dto.MessageResponse;
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+
+/**
+ * Fans notifications out to every instance through Postgres LISTEN/NOTIFY.
+ * Each instance keeps one dedicated connection, outside the pool, listening on the channel,
+ * so the pool stays available to requests. Publishing borrows a pooled connection briefly.
+ */
+@ApplicationScoped
+@LookupIfProperty(name = "app.notifications.relay", stringValue = "postgres")
+public class PostgresNotificationRelay implements NotificationRelay {
+
+    static final String CHANNEL = "user_notifications";
+
+    // NOTIFY payloads are limited to 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    @Inject
+    DataSource dataSource;
+
+    @ConfigProperty(name = "quarkus.datasource.jdbc.url")
+    String jdbcUrl;
+
+    @ConfigProperty(name = "quarkus.datasource.username")
+    Optional<String> username;
+
+    @ConfigProperty(name = "quarkus.datasource.password")
+    Optional<String> password;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    // Single publisher thread keeps notifications in commit order, off the transaction thread
+    private final ExecutorService publisher =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("notification-publisher").factory());
+    private volatile boolean running;
+    private BiConsumer<String, UserNotification> deliver;
+
+    @Override
+    public void start(BiConsumer<String, UserNotification> deliver) {
+        this.deliver = deliver;
+        running = true;
+        Thread.ofVirtual().name("notification-listener").start(this::listen);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        running = false;
+        publisher.shutdown();
+    }
+
+    @Override
+    public void publish(String userId, UserNotification notification) {
+        String payload = serialize(new RelayedNotification(userId, notification));
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES && notification.message() != null) {
+            // Clients fetch the message content when it is missing
+            MessageResponse message = notification.message();
+            payload = serialize(new RelayedNotification(userId, UserNotification.newMessage(new MessageResponse(
+                    message.id(), message.conversationId(), message.senderId(), null, message.sentAt(), message.isRead()))));
+        }
+
+        String notifyPayload = payload;
+        publisher.execute(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                statement.setString(1, CHANNEL);
+                statement.setString(2, notifyPayload);
+                statement.execute();
+            } catch (SQLException e) {
+                Log.warnf(e, "Failed to publish notification for user %s", userId);
+            }
+        });
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(jdbcUrl, username.orElse(null), password.orElse(null));
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                Log.infof("Listening for notifications on channel %s", CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                Log.warnf(e, "Notification listener disconnected, reconnecting in %d ms", RECONNECT_DELAY_MS);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            RelayedNotification relayed = objectMapper.readValue(payload, RelayedNotification.class);
+            deliver.accept(relayed.userId(), relayed.notification());
+        } catch (JsonProcessingException e) {
+            Log.warnf(e, "Ignoring malformed notification payload");
+        }
+    }
+
+    private String serialize(RelayedNotification relayed) {
+        try {
+            return objectMapper.writeValueAsString(relayed);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize notification", e);
+        }
+    }
+
+    record RelayedNotification(
+        String userId,
+        UserNotification notification
+    ) {
+    }
+}
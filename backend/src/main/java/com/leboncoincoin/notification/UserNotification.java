@@ -0,0 +1,41 @@
+package com.leboncoincoin.notification;
+
+import com.leboncoincoin.dto.MessageResponse;
+
+/**
+ * Event pushed to a connected user on the notification stream.
+ * Only the fields relevant to the type are set.
+ */
+public record UserNotification(
+    Type type,
+    String conversationId,
+    MessageResponse message,
+    String messageId,
+    Long unreadCount
+) {
+    public enum Type {
+        NEW_MESSAGE,
+        READ_RECEIPT,
+        UNREAD_COUNT,
+        HEARTBEAT
+    }
+
+    public static UserNotification newMessage(MessageResponse message) {
+        return new UserNotification(Type.NEW_MESSAGE, message.conversationId(), message, message.id(), null);
+    }
+
+    /**
+     * Messages of the recipient were read, messageId is null when the whole conversation was
+     */
+    public static UserNotification readReceipt(String conversationId, String messageId) {
+        return new UserNotification(Type.READ_RECEIPT, conversationId, null, messageId, null);
+    }
+
+    public static UserNotification unreadCount(long unreadCount) {
+        return new UserNotification(Type.UNREAD_COUNT, null, null, null, unreadCount);
+    }
+
+    public static UserNotification heartbeat() {
+        return new UserNotification(Type.HEARTBEAT, null, null, null, null);
+    }
+}
@@ -0,0 +1,322 @@
+package com.leboncoincoin.repository;
+
+import com.leboncoincoin.dto.ConversationResponse;
+import com.leboncoincoin.dto.ImageVariantsResponse;
+import com.leboncoincoin.dto.ListingResponse;
+import com.leboncoincoin.dto.MessageResponse;
+import com.leboncoincoin.entity.Conversation;
+import com.leboncoincoin.entity.Message;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@ApplicationScoped
+public class ConversationRepository implements PanacheRepositoryBase<Conversation, String> {
+
+    static final int PREVIEW_LENGTH = 200;
+
+    /**
+     * One row per conversation with the denormalized last message and unread counters,
+     * and the listing summary with seller, so an inbox is one indexed scan plus primary key joins
+     */
+    private static final String SUMMARY_SELECT = """
+            SELECT c.id, c.listing_id, c.buyer_id, c.seller_id, c.created_at, c.updated_at,
+                   c.last_message_id, c.last_message_sender_id, c.last_message_preview, c.last_message_at,
+                   CASE WHEN c.buyer_id = :viewerId THEN c.buyer_unread_count ELSE c.seller_unread_count END,
+                   CASE WHEN c.buyer_id = :viewerId THEN c.seller_unread_count ELSE c.buyer_unread_count END,
+                   l.id, l.title, l.description, l.price, l.category, l.location, l.user_id,
+                   l.created_at, l.updated_at,
+                   ARRAY(SELECT li.image_url FROM listing_images li WHERE li.listing_id = l.id),
+                   s.name, s.email,
+                   %s
+            FROM conversations c
+            LEFT JOIN listings l ON l.id = c.listing_id
+            LEFT JOIN users s ON s.id = l.user_id
+            """.formatted(ListingResponse.IMAGE_VARIANTS_SQL);
+
+    /**
+     * Summary recomputed from the messages table, per conversation
+     */
+    private static final String COMPUTED_SUMMARY = """
+            SELECT c.id,
+                   lm.id AS last_message_id,
+                   lm.sender_id AS last_message_sender_id,
+                   LEFT(lm.content, %1$d) AS last_message_preview,
+                   lm.sent_at AS last_message_at,
+                   (SELECT COUNT(*) FROM messages m
+                    WHERE m.conversation_id = c.id AND m.sender_id <> c.buyer_id
+                      AND (c.buyer_last_read_at IS NULL
+                           OR (m.sent_at, m.id) > (c.buyer_last_read_at, c.buyer_last_read_message_id))
+                   ) AS buyer_unread_count,
+                   (SELECT COUNT(*) FROM messages m
+                    WHERE m.conversation_id = c.id AND m.sender_id <> c.seller_id
+                      AND (c.seller_last_read_at IS NULL
+                           OR (m.sent_at, m.id) > (c.seller_last_read_at, c.seller_last_read_message_id))
+                   ) AS seller_unread_count
+            FROM conversations c
+            LEFT JOIN LATERAL (
+                SELECT id, sender_id, content, sent_at
+                FROM messages
+                WHERE conversation_id = c.id
+                ORDER BY sent_at DESC, id DESC
+                LIMIT 1
+            ) lm ON TRUE
+            """.formatted(PREVIEW_LENGTH);
+
+    /**
+     * Unread total of a user over the conversations other than the one being written, added
+     * to that conversation's new counter so a write returns the total without a second query
+     */
+    private static final String UNREAD_ELSEWHERE = """
+            (SELECT COALESCE(SUM(CASE WHEN o.buyer_id = %1$s THEN o.buyer_unread_count ELSE 0 END
+                    + CASE WHEN o.seller_id = %1$s AND o.seller_id <> o.buyer_id THEN o.seller_unread_count ELSE 0 END), 0)
+             FROM conversations o
+             WHERE (o.buyer_id = %1$s OR o.seller_id = %1$s) AND o.id <> %2$s)""";
+
+    /**
+     * Inbox of the user (as buyer or seller), most recently active first
+     */
+    public List<ConversationResponse> findSummariesByUserId(String userId) {
+        return findSummaries("WHERE c.buyer_id = :userId OR c.seller_id = :userId", "userId", userId, userId);
+    }
+
+    /**
+     * Conversations about a listing as seen by its owner, most recently active first
+     */
+    public List<ConversationResponse> findSummariesByListingId(String listingId, String viewerId) {
+        return findSummaries("WHERE c.listing_id = :listingId", "listingId", listingId, viewerId);
+    }
+
+    public ConversationResponse findSummaryById(String id, String viewerId) {
+        List<ConversationResponse> summaries = findSummaries("WHERE c.id = :id", "id", id, viewerId);
+        return summaries.isEmpty() ? null : summaries.get(0);
+    }
+
+    /**
+     * Unread messages of the user across all conversations, from the summary counters
+     */
+    public long countUnreadByUserId(String userId) {
+        Object count = getEntityManager().createNativeQuery("""
+                SELECT COALESCE(SUM(CASE WHEN buyer_id = :userId THEN buyer_unread_count ELSE 0 END
+                        + CASE WHEN seller_id = :userId AND seller_id <> buyer_id THEN seller_unread_count ELSE 0 END), 0)
+                FROM conversations
+                WHERE buyer_id = :userId OR seller_id = :userId
+                """)
+                .setParameter("userId", userId)
+                .getSingleResult();
+        return ((Number) count).longValue();
+    }
+
+    /**
+     * Record a new message on its conversation: unread counters of the recipients go up,
+     * and the last message moves forward unless a newer one was already recorded.
+     * Returns the recipient's unread total across conversations (meaningless when the sender
+     * wrote to themselves).
+     */
+    public long recordMessage(Message message) {
+        flush();
+        Object unread = getEntityManager().createNativeQuery("""
+                WITH recorded AS (
+                    UPDATE conversations
+                    SET buyer_unread_count = buyer_unread_count + CASE WHEN buyer_id <> :senderId THEN 1 ELSE 0 END,
+                        seller_unread_count = seller_unread_count + CASE WHEN seller_id <> :senderId THEN 1 ELSE 0 END
+                    WHERE id = :id
+                    RETURNING id,
+                        CASE WHEN buyer_id <> :senderId THEN buyer_id ELSE seller_id END AS recipient_id,
+                        CASE WHEN buyer_id <> :senderId THEN buyer_unread_count ELSE seller_unread_count END AS unread_count
+                )
+                SELECT r.unread_count + %s FROM recorded r
+                """.formatted(UNREAD_ELSEWHERE.formatted("r.recipient_id", "r.id")))
+                .setParameter("senderId", message.senderId)
+                .setParameter("id", message.conversation.id)
+                .getSingleResult();
+        getEntityManager().createNativeQuery("""
+                UPDATE conversations
+                SET last_message_id = :messageId,
+                    last_message_sender_id = :senderId,
+                    last_message_preview = :preview,
+                    last_message_at = :sentAt,
+                    updated_at = GREATEST(updated_at, :sentAt)
+                WHERE id = :id AND (last_message_at IS NULL OR last_message_at <= :sentAt)
+                """)
+                .setParameter("messageId", message.id)
+                .setParameter("senderId", message.senderId)
+                .setParameter("preview", preview(message.content))
+                .setParameter("sentAt", message.sentAt)
+                .setParameter("id", message.conversation.id)
+                .executeUpdate();
+        return ((Number) unread).longValue();
+    }
+
+    /**
+     * Move the watermark of the message's recipient up to the message and recount what is
+     * still unread after it. Returns the reader's unread total across conversations, empty
+     * when the watermark was already past the message.
+     */
+    public Optional<Long> markReadUpTo(Conversation conversation, Message message) {
+        flush();
+        // Column prefix comes from this fixed pair, never from input
+        String reader = message.senderId.equals(conversation.buyerId) ? "seller" : "buyer";
+        @SuppressWarnings("unchecked")
+        List<Object> unread = getEntityManager().createNativeQuery("""
+                WITH marked AS (
+                    UPDATE conversations c
+                    SET %1$s_last_read_at = :sentAt,
+                        %1$s_last_read_message_id = :messageId,
+                        %1$s_unread_count = (
+                            SELECT COUNT(*) FROM messages m
+                            WHERE m.conversation_id = c.id AND m.sender_id <> c.%1$s_id
+                              AND (m.sent_at, m.id) > (:sentAt, :messageId)
+                        )
+                    WHERE c.id = :id
+                      AND (c.%1$s_last_read_at IS NULL
+                           OR (c.%1$s_last_read_at, c.%1$s_last_read_message_id) < (:sentAt, :messageId))
+                    RETURNING c.id, c.%1$s_id AS reader_id, c.%1$s_unread_count AS unread_count
+                )
+                SELECT r.unread_count + %2$s FROM marked r
+                """.formatted(reader, UNREAD_ELSEWHERE.formatted("r.reader_id", "r.id")))
+                .setParameter("sentAt", message.sentAt)
+                .setParameter("messageId", message.id)
+                .setParameter("id", conversation.id)
+                .getResultList();
+        return unread.stream().findFirst().map(count -> ((Number) count).longValue());
+    }
+
+    /**
+     * Move the reader's watermark to the last message, a single row update however long
+     * the conversation is. Returns the reader's unread total across conversations, empty
+     * when there was nothing new to read.
+     */
+    public Optional<Long> markAllRead(String conversationId, String readerId) {
+        flush();
+        @SuppressWarnings("unchecked")
+        List<Object> unread = getEntityManager().createNativeQuery("""
+                WITH marked AS (
+                    UPDATE conversations
+                    SET buyer_last_read_at = CASE WHEN buyer_id = :readerId
+                            THEN last_message_at ELSE buyer_last_read_at END,
+                        buyer_last_read_message_id = CASE WHEN buyer_id = :readerId
+                            THEN last_message_id ELSE buyer_last_read_message_id END,
+                        buyer_unread_count = CASE WHEN buyer_id = :readerId THEN 0 ELSE buyer_unread_count END,
+                        seller_last_read_at = CASE WHEN seller_id = :readerId
+                            THEN last_message_at ELSE seller_last_read_at END,
+                        seller_last_read_message_id = CASE WHEN seller_id = :readerId
+                            THEN last_message_id ELSE seller_last_read_message_id END,
+                        seller_unread_count = CASE WHEN seller_id = :readerId THEN 0 ELSE seller_unread_count END
+                    WHERE id = :id
+                      AND last_message_id IS NOT NULL
+                      AND ((buyer_id = :readerId AND buyer_last_read_message_id IS DISTINCT FROM last_message_id)
+                           OR (seller_id = :readerId AND seller_last_read_message_id IS DISTINCT FROM last_message_id))
+                    RETURNING id
+                )
+                SELECT %s FROM marked r
+                """.formatted(UNREAD_ELSEWHERE.formatted(":readerId", "r.id")))
+                .setParameter("readerId", readerId)
+                .setParameter("id", conversationId)
+                .getResultList();
+        return unread.stream().findFirst().map(count -> ((Number) count).longValue());
+    }
+
+    /**
+     * Ids of conversations whose stored summary differs from their messages
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> findDriftedSummaryIds(int limit) {
+        return getEntityManager().createNativeQuery("""
+                SELECT c.id
+                FROM conversations c
+                JOIN (%s) computed ON computed.id = c.id
+                WHERE c.last_message_id IS DISTINCT FROM computed.last_message_id
+                   OR c.buyer_unread_count <> computed.buyer_unread_count
+                   OR c.seller_unread_count <> computed.seller_unread_count
+                LIMIT :limit
+                """.formatted(COMPUTED_SUMMARY))
+                .setParameter("limit", limit)
+                .getResultList();
+    }
+
+    /**
+     * Recompute the summary of one conversation from its messages.
+     * The row is locked first so that message writes committed meanwhile are counted.
+     */
+    public void repairSummary(String id) {
+        getEntityManager().createNativeQuery("SELECT id FROM conversations WHERE id = :id FOR UPDATE")
+                .setParameter("id", id)
+                .getResultList();
+        getEntityManager().createNativeQuery("""
+                UPDATE conversations c
+                SET last_message_id = computed.last_message_id,
+                    last_message_sender_id = computed.last_message_sender_id,
+                    last_message_preview = computed.last_message_preview,
+                    last_message_at = computed.last_message_at,
+                    buyer_unread_count = computed.buyer_unread_count,
+                    seller_unread_count = computed.seller_unread_count
+                FROM (%s WHERE c.id = :id) computed
+                WHERE c.id = computed.id
+                """.formatted(COMPUTED_SUMMARY))
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    static String preview(String content) {
+        if (content == null || content.codePointCount(0, content.length()) <= PREVIEW_LENGTH) {
+            return content;
+        }
+        return content.substring(0, content.offsetByCodePoints(0, PREVIEW_LENGTH));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ConversationResponse> findSummaries(String where, String param, String value, String viewerId) {
+        Query query = getEntityManager()
+                .createNativeQuery(SUMMARY_SELECT + where + " ORDER BY c.updated_at DESC, c.id DESC");
+        query.setParameter(param, value);
+        query.setParameter("viewerId", viewerId);
+        List<Object[]> rows = query.getResultList();
+        return rows.stream().map(row -> toSummary(row, viewerId)).toList();
+    }
+
+    private static ConversationResponse toSummary(Object[] row, String viewerId) {
+        String conversationId = (String) row[0];
+        int viewerUnread = ((Number) row[10]).intValue();
+        int otherUnread = ((Number) row[11]).intValue();
+        // The last message is the newest, it is read once its recipient has nothing unread left
+        MessageResponse lastMessage = row[6] == null ? null : new MessageResponse(
+                (String) row[6],
+                conversationId,
+                (String) row[7],
+                (String) row[8],
+                NativeRows.toLocalDateTime(row[9]),
+                viewerId.equals(row[7]) ? otherUnread == 0 : viewerUnread == 0
+        );
+        ListingResponse listing = row[12] == null ? null : new ListingResponse(
+                (String) row[12],
+                (String) row[13],
+                (String) row[14],
+                (BigDecimal) row[15],
+                (String) row[16],
+                (String) row[17],
+                NativeRows.toStringList(row[21]),
+                (String) row[18],
+                row[22] != null ? (String) row[22] : "Utilisateur inconnu",
+                (String) row[23],
+                NativeRows.toInstant(row[19]),
+                NativeRows.toInstant(row[20]),
+                ImageVariantsResponse.fromSqlArray(row[24])
+        );
+        return new ConversationResponse(
+                conversationId,
+                (String) row[1],
+                (String) row[2],
+                (String) row[3],
+                NativeRows.toLocalDateTime(row[4]),
+                NativeRows.toLocalDateTime(row[5]),
+                lastMessage,
+                viewerUnread,
+                listing
+        );
+    }
+}
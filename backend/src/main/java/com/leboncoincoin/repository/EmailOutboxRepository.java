@@ -0,0 +1,71 @@
+package com.leboncoincoin.repository;
+
+import com.leboncoincoin.entity.EmailOutbox;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@ApplicationScoped
+public class EmailOutboxRepository implements PanacheRepositoryBase<EmailOutbox, String> {
+
+    private static final LeaseQueue QUEUE = new LeaseQueue("email_outbox");
+
+    /**
+     * Email claimed by a sender, attempts includes the current one
+     */
+    public record ClaimedEmail(String id, String type, String recipient, String subject, String htmlBody, int attempts) {
+    }
+
+    /**
+     * Queue a rendered email in the caller's transaction, returns its id
+     */
+    public String enqueue(String type, String recipient, String subject, String htmlBody) {
+        String id = UUID.randomUUID().toString();
+        getEntityManager().createNativeQuery("""
+                INSERT INTO email_outbox (id, type, recipient, subject, html_body, status, attempts,
+                                          next_attempt_at, created_at, updated_at)
+                VALUES (:id, :type, :recipient, :subject, :htmlBody, 'PENDING', 0,
+                        LOCALTIMESTAMP, LOCALTIMESTAMP, LOCALTIMESTAMP)
+                """)
+                .setParameter("id", id)
+                .setParameter("type", type)
+                .setParameter("recipient", recipient)
+                .setParameter("subject", subject)
+                .setParameter("htmlBody", htmlBody)
+                .executeUpdate();
+        return id;
+    }
+
+    /**
+     * Claim up to limit due emails, oldest first, see LeaseQueue
+     */
+    public List<ClaimedEmail> claim(int limit, Duration lease) {
+        return QUEUE.claim(getEntityManager(), "id, type, recipient, subject, html_body, attempts", limit, lease)
+                .stream()
+                .map(row -> new ClaimedEmail((String) row[0], (String) row[1], (String) row[2],
+                        (String) row[3], (String) row[4], ((Number) row[5]).intValue()))
+                .toList();
+    }
+
+    /**
+     * Record the delivery of a batch in one statement
+     */
+    public void markSent(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        update("status = ?1, sentAt = CURRENT_TIMESTAMP, lastError = null, updatedAt = CURRENT_TIMESTAMP WHERE id IN ?2",
+                EmailOutbox.Status.SENT, ids);
+    }
+
+    /**
+     * Retry later with exponential backoff, or give up once the attempts are exhausted
+     */
+    public void fail(ClaimedEmail email, String error, int maxAttempts, Duration backoff) {
+        QUEUE.fail(getEntityManager(), email.id(), error, false, email.attempts(), maxAttempts, backoff);
+    }
+}
@@ -1,14 +1,43 @@
 package com.leboncoincoin.repository;
 
+import com.leboncoincoin.dto.FavoriteCursor;
+import com.leboncoincoin.dto.FavoriteListingPage;
+import com.leboncoincoin.dto.FavoriteListingResponse;
+import com.leboncoincoin.dto.FavoriteResponse;
+import com.leboncoincoin.dto.ImageVariantsResponse;
+import com.leboncoincoin.dto.ListingResponse;
 import com.leboncoincoin.entity.Favorite;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.Query;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @ApplicationScoped
 public class FavoriteRepository implements PanacheRepositoryBase<Favorite, String> {
 
+    /**
+     * Favorites of a user joined with their listing and its seller, deleted listings left out
+     */
+    private static final String LISTINGS_SELECT = """
+            SELECT f.id, f.listing_id, f.created_at,
+                   l.title, l.description, l.price, l.category, l.location, l.user_id,
+                   l.created_at, l.updated_at,
+                   ARRAY(SELECT li.image_url FROM listing_images li WHERE li.listing_id = l.id),
+                   s.name, s.email,
+                   %s
+            FROM favorites f
+            JOIN listings l ON l.id = f.listing_id AND l.deleted_at IS NULL
+            LEFT JOIN users s ON s.id = l.user_id
+            WHERE f.user_id = :userId
+            """.formatted(ListingResponse.IMAGE_VARIANTS_SQL);
+
+    private static final String LISTINGS_ORDER = " ORDER BY f.created_at DESC, f.id DESC";
+
     public List<Favorite> findByUserId(String userId) {
         return list("userId", userId);
     }
@@ -21,8 +50,107 @@ public class FavoriteRepository implements PanacheRepositoryBase<Favorite, Strin
         return count("userId = ?1 and listingId = ?2", userId, listingId) > 0;
     }
 
+    /**
+     * Which of the listings the user has favorited, in a single IN query
+     */
+    public Set<String> findFavoritedListingIds(String userId, Collection<String> listingIds) {
+        if (listingIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(getEntityManager().createQuery(
+                        "SELECT f.listingId FROM Favorite f WHERE f.userId = :userId AND f.listingId IN :listingIds",
+                        String.class)
+                .setParameter("userId", userId)
+                .setParameter("listingIds", listingIds)
+                .getResultList());
+    }
+
+    public List<String> findUserIdsByListingId(String listingId) {
+        return getEntityManager().createQuery(
+                        "SELECT f.userId FROM Favorite f WHERE f.listingId = :listingId", String.class)
+                .setParameter("listingId", listingId)
+                .getResultList();
+    }
+
     public long deleteByUserIdAndListingId(String userId, String listingId) {
         return delete("userId = ?1 and listingId = ?2", userId, listingId);
     }
-}
 
+    /**
+     * Favorites of listings that are not deleted
+     */
+    public long countActiveByUserId(String userId) {
+        return getEntityManager().createQuery("""
+                SELECT COUNT(f) FROM Favorite f, Listing l
+                WHERE l.id = f.listingId AND f.userId = :userId AND l.deletedAt IS NULL
+                """, Long.class)
+                .setParameter("userId", userId)
+                .getSingleResult();
+    }
+
+    /**
+     * All favorite listings of the user, most recently favorited first
+     */
+    public List<ListingResponse> findListingsByUserId(String userId) {
+        return queryListings(userId, null, null).stream()
+                .map(FavoriteRepository::toListing)
+                .toList();
+    }
+
+    /**
+     * One page of favorites with their listing, most recently favorited first
+     */
+    public FavoriteListingPage findListingPageByUserId(String userId, FavoriteCursor cursor, int limit) {
+        // One extra row tells whether another page exists
+        List<Object[]> rows = queryListings(userId, cursor, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<Object[]> pageRows = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Object[] last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new FavoriteCursor(NativeRows.toLocalDateTime(last[2]), (String) last[0]).encode();
+        }
+        return new FavoriteListingPage(
+                pageRows.stream().map(row -> new FavoriteListingResponse(
+                        new FavoriteResponse((String) row[0], userId, (String) row[1], NativeRows.toInstant(row[2])),
+                        toListing(row))).toList(),
+                nextCursor
+        );
+    }
+
+    private List<Object[]> queryListings(String userId, FavoriteCursor cursor, Integer maxRows) {
+        String sql = LISTINGS_SELECT
+                + (cursor != null ? " AND (f.created_at, f.id) < (:cursorCreatedAt, :cursorId)" : "")
+                + LISTINGS_ORDER;
+        Query query = getEntityManager().createNativeQuery(sql)
+                .setParameter("userId", userId);
+        if (cursor != null) {
+            query.setParameter("cursorCreatedAt", cursor.createdAt())
+                    .setParameter("cursorId", cursor.id());
+        }
+        if (maxRows != null) {
+            query.setMaxResults(maxRows);
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows;
+    }
+
+    private static ListingResponse toListing(Object[] row) {
+        return new ListingResponse(
+                (String) row[1],
+                (String) row[3],
+                (String) row[4],
+                (BigDecimal) row[5],
+                (String) row[6],
+                (String) row[7],
+                NativeRows.toStringList(row[11]),
+                (String) row[8],
+                row[12] != null ? (String) row[12] : "Utilisateur inconnu",
+                (String) row[13],
+                NativeRows.toInstant(row[9]),
+                NativeRows.toInstant(row[10]),
+                ImageVariantsResponse.fromSqlArray(row[14])
+        );
+    }
+}
@@ -0,0 +1,77 @@
+package com.leboncoincoin.repository;
+
+import com.leboncoincoin.entity.ImageJob;
+import com.leboncoincoin.entity.ImageVariant;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@ApplicationScoped
+public class ImageJobRepository implements PanacheRepositoryBase<ImageJob, String> {
+
+    private static final LeaseQueue QUEUE = new LeaseQueue("image_jobs");
+
+    /**
+     * Job claimed by a worker, attempts includes the current one
+     */
+    public record ClaimedJob(String id, String imageUrl, int attempts) {
+    }
+
+    /**
+     * Queue the images that have no job yet, in the caller's transaction
+     */
+    public void enqueue(Collection<String> imageUrls) {
+        for (String imageUrl : imageUrls) {
+            getEntityManager().createNativeQuery("""
+                    INSERT INTO image_jobs (id, image_url, status, attempts, next_attempt_at, created_at, updated_at)
+                    VALUES (:id, :imageUrl, 'PENDING', 0, LOCALTIMESTAMP, LOCALTIMESTAMP, LOCALTIMESTAMP)
+                    ON CONFLICT (image_url) DO NOTHING
+                    """)
+                    .setParameter("id", UUID.randomUUID().toString())
+                    .setParameter("imageUrl", imageUrl)
+                    .executeUpdate();
+        }
+    }
+
+    /**
+     * Claim up to limit due jobs, oldest first, see LeaseQueue
+     */
+    public List<ClaimedJob> claim(int limit, Duration lease) {
+        return QUEUE.claim(getEntityManager(), "id, image_url, attempts", limit, lease)
+                .stream()
+                .map(row -> new ClaimedJob((String) row[0], (String) row[1], ((Number) row[2]).intValue()))
+                .toList();
+    }
+
+    /**
+     * Store the variants and close the job
+     */
+    public void complete(String jobId, ImageVariant variant) {
+        getEntityManager().createNativeQuery("""
+                INSERT INTO image_variants (image_url, card_url, detail_url, zoom_url, created_at)
+                VALUES (:imageUrl, :cardUrl, :detailUrl, :zoomUrl, :createdAt)
+                ON CONFLICT (image_url) DO UPDATE
+                SET card_url = EXCLUDED.card_url, detail_url = EXCLUDED.detail_url, zoom_url = EXCLUDED.zoom_url
+                """)
+                .setParameter("imageUrl", variant.imageUrl)
+                .setParameter("cardUrl", variant.cardUrl)
+                .setParameter("detailUrl", variant.detailUrl)
+                .setParameter("zoomUrl", variant.zoomUrl)
+                .setParameter("createdAt", variant.createdAt)
+                .executeUpdate();
+        update("status = ?1, lastError = null, updatedAt = CURRENT_TIMESTAMP WHERE id = ?2",
+                ImageJob.Status.DONE, jobId);
+    }
+
+    /**
+     * Retry later with exponential backoff, or give up on a permanent error (retrying will
+     * not help) or once the attempts are exhausted
+     */
+    public void fail(ClaimedJob job, String error, boolean permanent, int maxAttempts, Duration backoff) {
+        QUEUE.fail(getEntityManager(), job.id(), error, permanent, job.attempts(), maxAttempts, backoff);
+    }
+}
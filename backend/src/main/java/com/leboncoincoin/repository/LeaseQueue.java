@@ -0,0 +1,76 @@
+package com.leboncoincoin.repository;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Claim and retry statements of the tables used as work queues (image_jobs, email_outbox).
+ * They share the id, status, attempts, next_attempt_at, last_error, created_at and updated_at
+ * columns, a row is due while PENDING and past its next_attempt_at.
+ */
+final class LeaseQueue {
+
+    static final int ERROR_LENGTH = 1000;
+
+    private final String table;
+
+    LeaseQueue(String table) {
+        this.table = table;
+    }
+
+    /**
+     * Claim up to limit due rows and return the given columns, oldest first. SKIP LOCKED lets
+     * several instances poll concurrently, and pushing next_attempt_at by the lease hands a row
+     * back if its worker dies. The returned attempts include the current one.
+     */
+    List<Object[]> claim(EntityManager entityManager, String columns, int limit, Duration lease) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery("""
+                WITH claimed AS (
+                    UPDATE %1$s q
+                    SET attempts = q.attempts + 1,
+                        next_attempt_at = LOCALTIMESTAMP + :leaseSeconds * INTERVAL '1 second',
+                        updated_at = LOCALTIMESTAMP
+                    WHERE q.id IN (
+                        SELECT id FROM %1$s
+                        WHERE status = 'PENDING' AND next_attempt_at <= LOCALTIMESTAMP
+                        ORDER BY next_attempt_at
+                        LIMIT :limit
+                        FOR UPDATE SKIP LOCKED
+                    )
+                    RETURNING q.*
+                )
+                SELECT %2$s FROM claimed
+                ORDER BY created_at
+                """.formatted(table, columns))
+                .setParameter("leaseSeconds", lease.toSeconds())
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows;
+    }
+
+    /**
+     * Retry later with exponential backoff, or give up on a permanent error or once the
+     * attempts are exhausted
+     */
+    void fail(EntityManager entityManager, String id, String error, boolean permanent,
+              int attempts, int maxAttempts, Duration backoff) {
+        boolean exhausted = permanent || attempts >= maxAttempts;
+        long delaySeconds = backoff.toSeconds() << Math.min(attempts - 1, 10);
+        entityManager.createNativeQuery("""
+                UPDATE %s
+                SET status = :status,
+                    next_attempt_at = LOCALTIMESTAMP + :delaySeconds * INTERVAL '1 second',
+                    last_error = :error,
+                    updated_at = LOCALTIMESTAMP
+                WHERE id = :id
+                """.formatted(table))
+                .setParameter("status", exhausted ? "FAILED" : "PENDING")
+                .setParameter("delaySeconds", delaySeconds)
+                .setParameter("error", error == null ? null : error.substring(0, Math.min(error.length(), ERROR_LENGTH)))
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+}
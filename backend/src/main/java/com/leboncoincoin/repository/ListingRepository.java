@@ -1,19 +1,43 @@
 package com.leboncoincoin.repository;
 
 import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.dto.ListingCursor;
+import com.leboncoincoin.dto.ListingFacetsResponse;
 import com.leboncoincoin.dto.ListingFilter;
-import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.Query;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @ApplicationScoped
 public class ListingRepository implements PanacheRepositoryBase<Listing, String> {
 
+    /**
+     * Text search configuration used by the search_vector generated column
+     */
+    private static final String SEARCH_CONFIG = "french";
+
+    @ConfigProperty(name = "app.listings.search.full-text-enabled", defaultValue = "true")
+    boolean fullTextEnabled;
+
+    /**
+     * Accent-insensitive trigram matching (pg_trgm, V1.0.9). The similarity threshold
+     * is the pg_trgm.word_similarity_threshold setting, applied on each new connection.
+     */
+    @ConfigProperty(name = "app.listings.search.fuzzy-enabled", defaultValue = "true")
+    boolean fuzzyEnabled;
+
     public List<Listing> findByUserId(String userId) {
         return list("userId = ?1 AND deletedAt IS NULL", Sort.descending("createdAt"), userId);
     }
@@ -27,40 +51,255 @@ public class ListingRepository implements PanacheRepositoryBase<Listing, String>
             return findAllSorted();
         }
 
-        StringBuilder query = new StringBuilder("deletedAt IS NULL");
+        return findFiltered(filter, null, null, null);
+    }
+
+    /**
+     * Filtered listings restricted to the given ids, the search term is assumed
+     * to be already matched by the caller (in-memory search index)
+     */
+    public List<Listing> findWithFilterAmong(ListingFilter filter, Collection<String> candidateIds) {
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+        return findFiltered(filter, candidateIds, null, null);
+    }
+
+    /**
+     * Keyset page of the filtered feed ordered by (createdAt, id) descending.
+     * Returns up to limit + 1 rows so the caller can tell if a next page exists.
+     */
+    public List<Listing> findPageWithFilter(ListingFilter filter, ListingCursor cursor, int limit) {
+        return findFiltered(filter, null, cursor, limit + 1);
+    }
+
+    /**
+     * Keyset page of the filtered feed restricted to the given ids,
+     * see {@link #findWithFilterAmong(ListingFilter, Collection)}
+     */
+    public List<Listing> findPageWithFilterAmong(ListingFilter filter, Collection<String> candidateIds,
+                                                 ListingCursor cursor, int limit) {
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+        return findFiltered(filter, candidateIds, cursor, limit + 1);
+    }
+
+    /**
+     * Keyset page of a user's listings ordered by (createdAt, id) descending.
+     * Returns up to limit + 1 rows so the caller can tell if a next page exists.
+     */
+    public List<Listing> findPageByUserId(String userId, ListingCursor cursor, int limit) {
+        StringBuilder query = new StringBuilder("userId = :userId AND deletedAt IS NULL");
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+
+        // Seek past the last row of the previous page instead of using OFFSET,
+        // so rows inserted meanwhile never shift the page boundaries
+        if (cursor != null) {
+            query.append(" AND (createdAt < :cursorCreatedAt OR (createdAt = :cursorCreatedAt AND id < :cursorId))");
+            params.put("cursorCreatedAt", cursor.createdAt());
+            params.put("cursorId", cursor.id());
+        }
+
+        return find(query.toString(), Sort.descending("createdAt", "id"), params)
+                .range(0, limit)
+                .list();
+    }
+
+    /**
+     * Filtered search in native SQL, needed for the full-text and trigram operators
+     * (search_vector @@ tsquery, ts_rank, <%) that JPQL cannot express
+     */
+    @SuppressWarnings("unchecked")
+    private List<Listing> findFiltered(ListingFilter filter, Collection<String> candidateIds,
+                                       ListingCursor cursor, Integer maxResults) {
+        StringBuilder sql = new StringBuilder("SELECT l.*");
+        Map<String, Object> params = new HashMap<>();
+        boolean fullText = appendFromWhere(sql, params, filter, candidateIds);
+
+        // Seek past the last row of the previous page instead of using OFFSET,
+        // so rows inserted meanwhile never shift the page boundaries
+        if (cursor != null) {
+            sql.append(" AND (l.created_at < :cursorCreatedAt OR (l.created_at = :cursorCreatedAt AND l.id < :cursorId))");
+            params.put("cursorCreatedAt", cursor.createdAt());
+            params.put("cursorId", cursor.id());
+        }
+
+        if (fullText && filter.sortByRelevance()) {
+            sql.append(" ORDER BY ts_rank(l.search_vector, q) DESC, l.created_at DESC, l.id DESC");
+        } else {
+            sql.append(" ORDER BY l.created_at DESC, l.id DESC");
+        }
+
+        Query query = getEntityManager().createNativeQuery(sql.toString(), Listing.class);
+        params.forEach(query::setParameter);
+        if (maxResults != null) {
+            query.setMaxResults(maxResults);
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * Facet counts of the filtered listings (per category, price bucket and location),
+     * computed in a single scan with GROUPING SETS
+     */
+    @SuppressWarnings("unchecked")
+    public ListingFacetsResponse countFacets(ListingFilter filter, Collection<String> candidateIds, int topLocations) {
+        if (candidateIds != null && candidateIds.isEmpty()) {
+            return ListingFacetsResponse.empty();
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT f.category, f.price_bucket, f.location_key,"
+                + " MIN(f.location), COUNT(*),"
+                + " GROUPING(f.category), GROUPING(f.price_bucket), GROUPING(f.location_key)"
+                + " FROM (SELECT l.category, l.location, LOWER(TRIM(l.location)) AS location_key, "
+                + priceBucketExpression() + " AS price_bucket");
         Map<String, Object> params = new HashMap<>();
+        appendFromWhere(sql, params, filter, candidateIds);
+        sql.append(") f GROUP BY GROUPING SETS ((f.category), (f.price_bucket), (f.location_key), ())");
+
+        Query query = getEntityManager().createNativeQuery(sql.toString());
+        params.forEach(query::setParameter);
+        List<Object[]> rows = query.getResultList();
+
+        long total = 0;
+        long[] priceCounts = new long[ListingFacetsResponse.PRICE_BOUNDS.size() + 1];
+        List<ListingFacetsResponse.FacetCount> categories = new ArrayList<>();
+        List<ListingFacetsResponse.FacetCount> locations = new ArrayList<>();
+        for (Object[] row : rows) {
+            long count = ((Number) row[4]).longValue();
+            boolean byCategory = ((Number) row[5]).intValue() == 0;
+            boolean byPrice = ((Number) row[6]).intValue() == 0;
+            boolean byLocation = ((Number) row[7]).intValue() == 0;
+            if (byCategory) {
+                categories.add(new ListingFacetsResponse.FacetCount((String) row[0], count));
+            } else if (byPrice) {
+                priceCounts[((Number) row[1]).intValue()] = count;
+            } else if (byLocation) {
+                locations.add(new ListingFacetsResponse.FacetCount((String) row[3], count));
+            } else {
+                total = count;
+            }
+        }
+
+        Comparator<ListingFacetsResponse.FacetCount> byCountDesc =
+                Comparator.comparingLong(ListingFacetsResponse.FacetCount::count).reversed();
+        categories.sort(byCountDesc);
+        locations.sort(byCountDesc);
+        return new ListingFacetsResponse(
+                total,
+                categories,
+                ListingFacetsResponse.priceRanges(priceCounts),
+                locations.subList(0, Math.min(topLocations, locations.size()))
+        );
+    }
+
+    /**
+     * CASE expression mapping l.price to its bucket index in ListingFacetsResponse.PRICE_BOUNDS
+     */
+    private static String priceBucketExpression() {
+        StringBuilder expression = new StringBuilder("CASE");
+        List<BigDecimal> bounds = ListingFacetsResponse.PRICE_BOUNDS;
+        for (int i = 0; i < bounds.size(); i++) {
+            expression.append(" WHEN l.price < ").append(bounds.get(i).toPlainString()).append(" THEN ").append(i);
+        }
+        return expression.append(" ELSE ").append(bounds.size()).append(" END").toString();
+    }
+
+    /**
+     * Append the FROM and WHERE clauses shared by the listing and facet queries,
+     * returns whether the full-text query alias q is in scope
+     */
+    private boolean appendFromWhere(StringBuilder sql, Map<String, Object> params,
+                                    ListingFilter filter, Collection<String> candidateIds) {
+        boolean fullText = candidateIds == null && fullTextEnabled && filter != null && filter.hasSearchTerm();
+
+        sql.append(" FROM listings l");
+        if (fullText) {
+            // search_vector is built over unaccented text (V1.0.8), the query must be too
+            sql.append(", to_tsquery('" + SEARCH_CONFIG + "', immutable_unaccent(:tsquery)) q");
+            params.put("tsquery", toPrefixTsQuery(filter.searchTerm()));
+        }
+        sql.append(" WHERE l.deleted_at IS NULL");
+
+        if (candidateIds != null) {
+            // One array parameter whatever the number of ids
+            sql.append(" AND l.id = ANY(:candidateIds)");
+            params.put("candidateIds", candidateIds.toArray(String[]::new));
+        }
+
+        if (filter != null && filter.hasFilters()) {
+            appendFilter(sql, params, filter, fullText, candidateIds != null);
+        }
+        return fullText;
+    }
 
+    private void appendFilter(StringBuilder sql, Map<String, Object> params, ListingFilter filter,
+                              boolean fullText, boolean searchMatched) {
         // Category filter
         if (filter.category() != null && !filter.category().isBlank()) {
-            query.append(" AND LOWER(category) = LOWER(:category)");
+            sql.append(" AND LOWER(l.category) = LOWER(:category)");
             params.put("category", filter.category());
         }
 
-        // Location filter (partial match)
+        // Location filter: accent/hyphen-insensitive substring or trigram similarity
+        // ("Saint Etienne" finds "Saint-Étienne"), plain partial match otherwise
         if (filter.location() != null && !filter.location().isBlank()) {
-            query.append(" AND LOWER(location) LIKE LOWER(:location)");
-            params.put("location", "%" + filter.location() + "%");
+            if (fuzzyEnabled) {
+                sql.append(" AND (search_normalize(l.location) LIKE '%' || search_normalize(:location) || '%'"
+                        + " OR search_normalize(:location) <% search_normalize(l.location))");
+                params.put("location", filter.location());
+            } else {
+                sql.append(" AND LOWER(l.location) LIKE LOWER(:location)");
+                params.put("location", "%" + filter.location() + "%");
+            }
         }
 
         // Price range filters
         if (filter.minPrice() != null) {
-            query.append(" AND price >= :minPrice");
+            sql.append(" AND l.price >= :minPrice");
             params.put("minPrice", filter.minPrice());
         }
 
         if (filter.maxPrice() != null) {
-            query.append(" AND price <= :maxPrice");
+            sql.append(" AND l.price <= :maxPrice");
             params.put("maxPrice", filter.maxPrice());
         }
 
-        // Search term (title or description)
-        if (filter.searchTerm() != null && !filter.searchTerm().isBlank()) {
-            query.append(" AND (LOWER(title) LIKE LOWER(:search) OR LOWER(description) LIKE LOWER(:search))");
+        // Search term: already matched by candidate ids, GIN-indexed full-text match,
+        // or substring match on title/description
+        if (searchMatched) {
+            return;
+        }
+        if (fullText && fuzzyEnabled) {
+            // Trigram similarity on the title catches typos the stemmer cannot
+            sql.append(" AND (l.search_vector @@ q OR search_normalize(:search) <% search_normalize(l.title))");
+            params.put("search", filter.searchTerm());
+        } else if (fullText) {
+            sql.append(" AND l.search_vector @@ q");
+        } else if (filter.hasSearchTerm() && fuzzyEnabled) {
+            sql.append(" AND (search_normalize(l.title) LIKE '%' || search_normalize(:search) || '%'"
+                    + " OR search_normalize(l.description) LIKE '%' || search_normalize(:search) || '%'"
+                    + " OR search_normalize(:search) <% search_normalize(l.title))");
+            params.put("search", filter.searchTerm());
+        } else if (filter.hasSearchTerm()) {
+            sql.append(" AND (LOWER(l.title) LIKE LOWER(:search) OR LOWER(l.description) LIKE LOWER(:search))");
             params.put("search", "%" + filter.searchTerm() + "%");
         }
+    }
 
-        PanacheQuery<Listing> panacheQuery = find(query.toString(), Sort.descending("createdAt"), params);
-        return panacheQuery.list();
+    /**
+     * Turn free user input into a tsquery where every word must match as a prefix,
+     * e.g. "vélo élect" becomes "vélo:* & élect:*". Operators typed by the user are dropped.
+     */
+    static String toPrefixTsQuery(String searchTerm) {
+        String query = Arrays.stream(searchTerm.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+        // Nothing searchable left (only punctuation): an empty tsquery matches nothing
+        return query;
     }
 
     public long countByUserId(String userId) {
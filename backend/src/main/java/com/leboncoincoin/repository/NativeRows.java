@@ -0,0 +1,48 @@
+package com.leboncoincoin.repository;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Column conversions for native query rows. Depending on the driver and the column type,
+ * timestamps come back as Timestamp, LocalDateTime or Instant and arrays as java.sql.Array.
+ */
+final class NativeRows {
+
+    private NativeRows() {
+    }
+
+    static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof Instant instant) {
+            return Timestamp.from(instant).toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    static Instant toInstant(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toInstant();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return Timestamp.valueOf(dateTime).toInstant();
+        }
+        return (Instant) value;
+    }
+
+    static List<String> toStringList(Object value) {
+        try {
+            Object array = value instanceof Array sqlArray ? sqlArray.getArray() : value;
+            return array == null ? List.of() : Arrays.stream((Object[]) array).map(String.class::cast).toList();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read array column", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.leboncoincoin.repository;
+
+import com.leboncoincoin.entity.UnreadDigest;
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@ApplicationScoped
+public class UnreadDigestRepository implements PanacheRepositoryBase<UnreadDigest, String> {
+
+    /**
+     * Messages of one conversation a recipient has not read nor been notified about
+     */
+    public record UnreadConversation(
+        String userId,
+        String email,
+        String userName,
+        String conversationId,
+        String listingTitle,
+        long unreadCount,
+        LocalDateTime lastSentAt
+    ) {
+    }
+
+    /**
+     * Unread messages older than the delay and past each recipient's high-water mark, in one
+     * aggregate over the conversation watermarks. One row per recipient and conversation for
+     * up to limit recipients, grouped by recipient and newest conversation first.
+     */
+    public List<UnreadConversation> findDue(Duration delay, int limit) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = getEntityManager().createNativeQuery("""
+                WITH unread AS (
+                    SELECT p.user_id, c.id AS conversation_id, c.listing_id, m.sent_at
+                    FROM conversations c
+                    CROSS JOIN LATERAL (VALUES
+                        (c.buyer_id, c.buyer_last_read_at, c.buyer_last_read_message_id, c.buyer_unread_count),
+                        (c.seller_id, c.seller_last_read_at, c.seller_last_read_message_id, c.seller_unread_count)
+                    ) AS p(user_id, last_read_at, last_read_message_id, unread_count)
+                    JOIN messages m ON m.conversation_id = c.id AND m.sender_id <> p.user_id
+                    LEFT JOIN unread_digests d ON d.user_id = p.user_id
+                    WHERE p.unread_count > 0
+                      AND (p.last_read_at IS NULL OR (m.sent_at, m.id) > (p.last_read_at, p.last_read_message_id))
+                      AND m.sent_at <= LOCALTIMESTAMP - :delaySeconds * INTERVAL '1 second'
+                      AND (d.notified_until IS NULL OR m.sent_at > d.notified_until)
+                ),
+                recipients AS (
+                    -- Recipients without a user row would take slots and be dropped by the join below
+                    SELECT un.user_id FROM unread un
+                    JOIN users u ON u.id = un.user_id
+                    GROUP BY un.user_id
+                    ORDER BY MIN(un.sent_at)
+                    LIMIT :limit
+                )
+                SELECT u.id, u.email, u.name, un.conversation_id, l.title, COUNT(*), MAX(un.sent_at)
+                FROM unread un
+                JOIN recipients r ON r.user_id = un.user_id
+                JOIN users u ON u.id = un.user_id
+                LEFT JOIN listings l ON l.id = un.listing_id
+                GROUP BY u.id, u.email, u.name, un.conversation_id, l.title
+                ORDER BY u.id, MAX(un.sent_at) DESC
+                """)
+                .setParameter("delaySeconds", delay.toSeconds())
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new UnreadConversation(
+                        (String) row[0],
+                        (String) row[1],
+                        (String) row[2],
+                        (String) row[3],
+                        (String) row[4],
+                        ((Number) row[5]).longValue(),
+                        NativeRows.toLocalDateTime(row[6])))
+                .toList();
+    }
+
+    /**
+     * Move the user's high-water mark forward, returns false when another run already
+     * notified up to it (the digest must not be sent)
+     */
+    public boolean advance(String userId, LocalDateTime notifiedUntil) {
+        return getEntityManager().createNativeQuery("""
+                INSERT INTO unread_digests (user_id, notified_until, sent_at)
+                VALUES (:userId, :notifiedUntil, LOCALTIMESTAMP)
+                ON CONFLICT (user_id) DO UPDATE
+                SET notified_until = EXCLUDED.notified_until, sent_at = EXCLUDED.sent_at
+                WHERE unread_digests.notified_until < EXCLUDED.notified_until
+                """)
+                .setParameter("userId", userId)
+                .setParameter("notifiedUntil", notifiedUntil)
+                .executeUpdate() > 0;
+    }
+}
@@ -1,14 +1,23 @@
 package com.leboncoincoin.repository;
 
 import com.leboncoincoin.entity.User;
+import com.leboncoincoin.entity.UserRole;
 import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @ApplicationScoped
 public class UserRepository implements PanacheRepositoryBase<User, String> {
 
+    public enum UpsertResult {
+        INSERTED,
+        UPDATED,
+        UNCHANGED
+    }
+
     public Optional<User> findByEmail(String email) {
         return find("email", email).firstResultOptional();
     }
@@ -16,4 +25,45 @@ public class UserRepository implements PanacheRepositoryBase<User, String> {
     public boolean existsByEmail(String email) {
         return count("email", email) > 0;
     }
+
+    /**
+     * Role of the user, without loading the entity
+     */
+    public Optional<UserRole> findRoleById(String id) {
+        return getEntityManager().createQuery("SELECT u.role FROM User u WHERE u.id = :id", UserRole.class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst();
+    }
+
+    /**
+     * Insert the user, or update email and name only when they changed, in one statement.
+     * A null email keeps the stored one. xmax = 0 tells a fresh insert from an update,
+     * no row comes back when nothing changed.
+     */
+    public UpsertResult upsert(String id, String email, String name) {
+        @SuppressWarnings("unchecked")
+        List<Boolean> rows = getEntityManager().createNativeQuery("""
+                WITH upserted AS (
+                    INSERT INTO users (id, email, name, role, created_at)
+                    VALUES (:id, COALESCE(CAST(:email AS VARCHAR), (SELECT email FROM users WHERE id = :id)),
+                            :name, 'USER', :createdAt)
+                    ON CONFLICT (id) DO UPDATE
+                    SET email = EXCLUDED.email, name = EXCLUDED.name
+                    WHERE users.email IS DISTINCT FROM EXCLUDED.email
+                       OR users.name IS DISTINCT FROM EXCLUDED.name
+                    RETURNING (xmax = 0) AS inserted
+                )
+                SELECT inserted FROM upserted
+                """)
+                .setParameter("id", id)
+                .setParameter("email", email)
+                .setParameter("name", name)
+                .setParameter("createdAt", Instant.now())
+                .getResultList();
+        if (rows.isEmpty()) {
+            return UpsertResult.UNCHANGED;
+        }
+        return rows.get(0) ? UpsertResult.INSERTED : UpsertResult.UPDATED;
+    }
 }
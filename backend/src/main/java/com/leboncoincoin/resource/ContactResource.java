@@ -1,7 +1,6 @@
 package com.leboncoincoin.resource;
 
 import com.leboncoincoin.dto.ContactRequest;
-import com.leboncoincoin.dto.EmailRequest;
 import com.leboncoincoin.security.SecurityConfig;
 import com.leboncoincoin.service.EmailService;
 import io.quarkus.logging.Log;
@@ -73,27 +72,19 @@ public class ContactResource {
             );
 
             // Build email content
-            String subject = String.format("[Contact] %s - %s", 
-                REASON_LABELS.getOrDefault(request.reason(), request.reason()),
-                userName);
+            String reasonLabel = REASON_LABELS.getOrDefault(request.reason(), request.reason());
+            String subject = String.format("[Contact] %s - %s", reasonLabel, userName);
 
-            String htmlContent = generateContactEmailTemplate(
-                request.reason(),
-                request.message(),
+            // Queued in the outbox, the request does not wait on the mail provider
+            emailService.queue("contact", recipient, subject, EmailService.Templates.contact(
+                reasonLabel,
                 userName,
                 userEmail,
-                userId
-            );
-
-            // Send email directly with HTML content
-            String provider = emailService.getEmailProvider();
-            if ("ses".equalsIgnoreCase(provider)) {
-                emailService.sendWithSES(recipient, subject, htmlContent);
-            } else {
-                emailService.sendWithSMTP(recipient, subject, htmlContent);
-            }
+                userId,
+                request.message()
+            ));
 
-            Log.infof("Contact email sent successfully to %s", recipient);
+            Log.infof("Contact email queued for %s", recipient);
 
             return Response.ok(Map.of(
                 "success", true,
@@ -101,7 +92,7 @@ public class ContactResource {
             )).build();
 
         } catch (Exception e) {
-            Log.errorf(e, "Failed to send contact email");
+            Log.errorf(e, "Failed to queue contact email");
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity(Map.of(
                     "success", false,
@@ -110,102 +101,4 @@ public class ContactResource {
                 .build();
         }
     }
-
-    private String generateContactEmailTemplate(
-        String reason,
-        String message,
-        String userName,
-        String userEmail,
-        String userId
-    ) {
-        String reasonLabel = REASON_LABELS.getOrDefault(reason, reason);
-        
-        return String.format("""
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <meta charset="UTF-8">
-                <style>
-                    body {
-                        font-family: Arial, sans-serif;
-                        line-height: 1.6;
-                        color: #333;
-                        max-width: 600px;
-                        margin: 0 auto;
-                        padding: 20px;
-                    }
-                    .header {
-                        background: linear-gradient(135deg, #FFD700 0%%, #FF9500 100%%);
-                        color: white;
-                        padding: 30px;
-                        text-align: center;
-                        border-radius: 10px 10px 0 0;
-                    }
-                    .content {
-                        background: #f9f9f9;
-                        padding: 30px;
-                        border-radius: 0 0 10px 10px;
-                    }
-                    .info-box {
-                        background: white;
-                        padding: 15px;
-                        border-left: 4px solid #FFD700;
-                        margin: 15px 0;
-                    }
-                    .message-box {
-                        background: white;
-                        padding: 20px;
-                        border-radius: 5px;
-                        margin: 20px 0;
-                        white-space: pre-wrap;
-                    }
-                    .footer {
-                        text-align: center;
-                        margin-top: 20px;
-                        color: #666;
-                        font-size: 12px;
-                    }
-                </style>
-            </head>
-            <body>
-                <div class="header">
-                    <h1>🦆 Nouveau message de contact</h1>
-                </div>
-                <div class="content">
-                    <div class="info-box">
-                        <strong>Raison :</strong> %s<br>
-                        <strong>Utilisateur :</strong> %s<br>
-                        <strong>Email :</strong> %s<br>
-                        <strong>ID Utilisateur :</strong> %s
-                    </div>
-                    
-                    <h3>Message :</h3>
-                    <div class="message-box">
-                        %s
-                    </div>
-                </div>
-                <div class="footer">
-                    <p>© 2024 LeBonCoinCoin - Message de contact</p>
-                </div>
-            </body>
-            </html>
-            """, 
-            reasonLabel,
-            userName,
-            userEmail != null ? userEmail : "Non connecté",
-            userId != null ? userId : "Anonyme",
-            escapeHtml(message)
-        );
-    }
-
-    private String escapeHtml(String text) {
-        if (text == null) return "";
-        return text
-            .replace("&", "&amp;")
-            .replace("<", "&lt;")
-            .replace(">", "&gt;")
-            .replace("\"", "&quot;")
-            .replace("'", "&#39;");
-    }
 }
-
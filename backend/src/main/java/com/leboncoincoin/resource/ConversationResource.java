@@ -7,6 +7,8 @@ import com.leboncoincoin.dto.MessageResponse;
 import com.leboncoincoin.entity.Conversation;
 import com.leboncoincoin.entity.Listing;
 import com.leboncoincoin.entity.Message;
+import com.leboncoincoin.notification.MessagingNotifier;
+import com.leboncoincoin.repository.ConversationRepository;
 import io.quarkus.security.Authenticated;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.inject.Inject;
@@ -17,9 +19,7 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
 
 @Path("/conversations")
 @Produces(MediaType.APPLICATION_JSON)
@@ -30,6 +30,12 @@ public class ConversationResource {
     @Inject
     SecurityIdentity securityIdentity;
 
+    @Inject
+    ConversationRepository conversationRepository;
+
+    @Inject
+    MessagingNotifier messagingNotifier;
+
     @ConfigProperty(name = "app.messaging.allow-self-messaging", defaultValue = "false")
     boolean allowSelfMessaging;
 
@@ -37,28 +43,7 @@ public class ConversationResource {
     @Transactional
     public List<ConversationResponse> getUserConversations() {
         String userId = securityIdentity.getPrincipal().getName();
-        List<Conversation> conversations = Conversation.findByUserId(userId);
-        
-        return conversations.stream()
-            .map(conversation -> {
-                List<Message> messages = Message.findByConversationId(conversation.id);
-                MessageResponse lastMessage = messages.isEmpty() 
-                    ? null 
-                    : MessageResponse.from(messages.get(messages.size() - 1));
-                
-                // Count unread messages for the current user
-                int unreadCount = (int) messages.stream()
-                    .filter(m -> !m.senderId.equals(userId) && !m.isRead)
-                    .count();
-                
-                // Fetch listing
-                Listing listing = Listing.findById(conversation.listingId);
-                ListingResponse listingResponse = listing != null ? ListingResponse.from(listing) : null;
-                
-                return ConversationResponse.from(conversation, lastMessage, unreadCount, listingResponse);
-            })
-            .sorted(Comparator.comparing(ConversationResponse::updatedAt).reversed())
-            .toList();
+        return conversationRepository.findSummariesByUserId(userId);
     }
 
     @GET
@@ -66,35 +51,24 @@ public class ConversationResource {
     @Transactional
     public Response getConversation(@PathParam("id") String id) {
         String userId = securityIdentity.getPrincipal().getName();
-        Conversation conversation = Conversation.findById(id);
+        ConversationResponse conversation = conversationRepository.findSummaryById(id, userId);
         
         if (conversation == null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
         
         // Check if user is part of the conversation
-        if (!conversation.buyerId.equals(userId) && !conversation.sellerId.equals(userId)) {
+        if (!conversation.buyerId().equals(userId) && !conversation.sellerId().equals(userId)) {
             return Response.status(Response.Status.FORBIDDEN).build();
         }
         
         // Check if listing is soft-deleted (conversation should not be accessible if listing is deleted)
-        Listing listing = Listing.findById(conversation.listingId);
+        Listing listing = Listing.findById(conversation.listingId());
         if (listing == null || listing.deletedAt != null) {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
         
-        List<Message> messages = Message.findByConversationId(conversation.id);
-        MessageResponse lastMessage = messages.isEmpty() 
-            ? null 
-            : MessageResponse.from(messages.get(messages.size() - 1));
-        
-        int unreadCount = (int) messages.stream()
-            .filter(m -> !m.senderId.equals(userId) && !m.isRead)
-            .count();
-        
-        ListingResponse listingResponse = ListingResponse.from(listing);
-        
-        return Response.ok(ConversationResponse.from(conversation, lastMessage, unreadCount, listingResponse)).build();
+        return Response.ok(conversation).build();
     }
 
     @POST
@@ -122,15 +96,8 @@ public class ConversationResource {
         // Check if conversation already exists
         Conversation existing = Conversation.findByListingAndUsers(request.listingId(), buyerId, sellerId);
         if (existing != null) {
-            // Return existing conversation
-            List<Message> messages = Message.findByConversationId(existing.id);
-            MessageResponse lastMessage = messages.isEmpty() 
-                ? null 
-                : MessageResponse.from(messages.get(messages.size() - 1));
-            
-            ListingResponse listingResponse = ListingResponse.from(listing);
-            
-            return Response.ok(ConversationResponse.from(existing, lastMessage, 0, listingResponse)).build();
+            // Return existing conversation, last message and listing from its summary
+            return Response.ok(conversationRepository.findSummaryById(existing.id, buyerId)).build();
         }
         
         // Create new conversation
@@ -146,6 +113,8 @@ public class ConversationResource {
         message.senderId = buyerId;
         message.content = request.initialMessage();
         message.persist();
+        long recipientUnread = conversationRepository.recordMessage(message);
+        messagingNotifier.messageSent(conversation, message, recipientUnread);
         
         MessageResponse lastMessage = MessageResponse.from(message);
         ListingResponse listingResponse = ListingResponse.from(listing);
@@ -172,25 +141,6 @@ public class ConversationResource {
             throw new ForbiddenException("Accès refusé");
         }
         
-        List<Conversation> conversations = Conversation.findByListingId(listingId);
-        
-        return conversations.stream()
-            .map(conversation -> {
-                List<Message> messages = Message.findByConversationId(conversation.id);
-                MessageResponse lastMessage = messages.isEmpty() 
-                    ? null 
-                    : MessageResponse.from(messages.get(messages.size() - 1));
-                
-                int unreadCount = (int) messages.stream()
-                    .filter(m -> !m.senderId.equals(userId) && !m.isRead)
-                    .count();
-                
-                // Fetch listing (reuse the one we already fetched)
-                ListingResponse listingResponse = ListingResponse.from(listing);
-                
-                return ConversationResponse.from(conversation, lastMessage, unreadCount, listingResponse);
-            })
-            .toList();
+        return conversationRepository.findSummariesByListingId(listingId, userId);
     }
 }
-
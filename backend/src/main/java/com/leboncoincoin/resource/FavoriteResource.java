@@ -1,9 +1,11 @@
 package com.leboncoincoin.resource;
 
+import com.leboncoincoin.dto.FavoriteCursor;
 import com.leboncoincoin.dto.FavoriteResponse;
-import com.leboncoincoin.dto.ListingResponse;
+import com.leboncoincoin.dto.FavoriteStatusRequest;
+import com.leboncoincoin.dto.Pagination;
 import com.leboncoincoin.entity.Favorite;
-import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.event.FavoriteChangedEvent;
 import com.leboncoincoin.exception.ResourceNotFoundException;
 import com.leboncoincoin.repository.FavoriteRepository;
 import com.leboncoincoin.repository.ListingRepository;
@@ -11,15 +13,22 @@ import com.leboncoincoin.security.SecurityConfig;
 import com.leboncoincoin.service.UserService;
 import io.quarkus.logging.Log;
 import io.quarkus.security.Authenticated;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.jwt.JsonWebToken;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
 
 @Path("/favorites")
@@ -28,6 +37,8 @@ import java.util.Optional;
 @Authenticated
 public class FavoriteResource {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+
     @Inject
     FavoriteRepository favoriteRepository;
 
@@ -43,6 +54,9 @@ public class FavoriteResource {
     @Inject
     JsonWebToken jwt;
 
+    @Inject
+    Event<FavoriteChangedEvent> favoriteChanged;
+
     @ConfigProperty(name = "app.dev.test-user-email", defaultValue = "dev@leboncoincoin.local")
     Optional<String> devUserEmail;
 
@@ -66,23 +80,23 @@ public class FavoriteResource {
     }
 
     /**
-     * Get all favorite listings (full listing details) for the current user
+     * Favorite listings (full listing details) of the current user, most recently favorited first,
+     * deleted listings left out. With a cursor or limit, returns a page of favorites with their listing.
      */
     @GET
     @Path("/listings")
-    public Response getFavoriteListings() {
+    public Response getFavoriteListings(
+            @QueryParam("cursor") String cursor,
+            @QueryParam("limit") Integer limit) {
         String userId = securityConfig.getCurrentUserId();
-        Log.infof("GET /favorites/listings for user %s", userId);
+        Log.infof("GET /favorites/listings for user %s - cursor=%s, limit=%s", userId, cursor, limit);
 
-        List<Favorite> favorites = favoriteRepository.findByUserId(userId);
-        List<ListingResponse> listings = favorites.stream()
-                .map(favorite -> listingRepository.findByIdOptional(favorite.listingId))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(ListingResponse::from)
-                .toList();
-
-        return Response.ok(listings).build();
+        if (cursor != null || limit != null) {
+            int pageSize = Pagination.pageSize(limit, DEFAULT_PAGE_SIZE);
+            return Response.ok(favoriteRepository.findListingPageByUserId(
+                    userId, FavoriteCursor.decode(cursor), pageSize)).build();
+        }
+        return Response.ok(favoriteRepository.findListingsByUserId(userId)).build();
     }
 
     /**
@@ -153,9 +167,10 @@ public class FavoriteResource {
         // Ensure user exists in database
         userService.ensureUserExists(userId, email, name);
 
-        // Check if listing exists
-        Listing listing = listingRepository.findByIdOptional(listingId)
-                .orElseThrow(() -> new ResourceNotFoundException("Listing not found"));
+        // Check if listing exists and is not deleted
+        if (listingRepository.findByIdAndNotDeleted(listingId) == null) {
+            throw new ResourceNotFoundException("Listing not found");
+        }
 
         // Check if already favorited
         if (favoriteRepository.existsByUserIdAndListingId(userId, listingId)) {
@@ -167,6 +182,7 @@ public class FavoriteResource {
         // Create favorite
         Favorite favorite = new Favorite(userId, listingId);
         favoriteRepository.persist(favorite);
+        favoriteChanged.fire(new FavoriteChangedEvent(userId, listingId, true));
 
         return Response.status(Response.Status.CREATED)
                 .entity(FavoriteResponse.from(favorite))
@@ -188,6 +204,10 @@ public class FavoriteResource {
         if (deleted == 0) {
             throw new ResourceNotFoundException("Favorite not found");
         }
+        // Favorites of deleted listings are not counted in the badge
+        if (listingRepository.findByIdAndNotDeleted(listingId) != null) {
+            favoriteChanged.fire(new FavoriteChangedEvent(userId, listingId, false));
+        }
 
         return Response.noContent().build();
     }
@@ -207,5 +227,22 @@ public class FavoriteResource {
                 .entity("{\"isFavorited\": " + isFavorited + "}")
                 .build();
     }
-}
 
+    /**
+     * Favorite status of many listings at once (e.g. a listing grid), as listing id to isFavorited
+     */
+    @POST
+    @Path("/status")
+    public Map<String, Boolean> getFavoriteStatuses(@Valid @NotNull FavoriteStatusRequest request) {
+        String userId = securityConfig.getCurrentUserId();
+        Set<String> listingIds = new LinkedHashSet<>(request.listingIds());
+        Log.infof("POST /favorites/status for user %s - %d listings", userId, listingIds.size());
+
+        Set<String> favorited = favoriteRepository.findFavoritedListingIds(userId, listingIds);
+        Map<String, Boolean> statuses = new LinkedHashMap<>();
+        for (String listingId : listingIds) {
+            statuses.put(listingId, favorited.contains(listingId));
+        }
+        return statuses;
+    }
+}
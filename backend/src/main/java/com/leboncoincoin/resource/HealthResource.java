@@ -1,5 +1,8 @@
 package com.leboncoincoin.resource;
 
+import com.leboncoincoin.cache.BadgeCounters;
+import com.leboncoincoin.cache.ListingQueryCache;
+import com.leboncoincoin.security.UserRoleCache;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
@@ -21,6 +24,15 @@ public class HealthResource {
     @Inject
     EntityManager entityManager;
 
+    @Inject
+    ListingQueryCache listingQueryCache;
+
+    @Inject
+    BadgeCounters badgeCounters;
+
+    @Inject
+    UserRoleCache userRoleCache;
+
     @GET
     public Response health() {
         Map<String, Object> health = new HashMap<>();
@@ -41,5 +53,15 @@ public class HealthResource {
         
         return Response.ok(health).build();
     }
+
+    @GET
+    @Path("/caches")
+    public Response caches() {
+        Map<String, Object> caches = new HashMap<>();
+        caches.put("listings", listingQueryCache.stats());
+        caches.put("badges", badgeCounters.stats());
+        caches.put("roles", userRoleCache.stats());
+        return Response.ok(caches).build();
+    }
 }
 
@@ -0,0 +1,104 @@
+package com.leboncoincoin.resource;
+
+import com.leboncoincoin.job.ConversationSummaryRepairJob;
+import com.leboncoincoin.job.EmailOutboxDispatcher;
+import com.leboncoincoin.job.ImageDerivativeJob;
+import com.leboncoincoin.job.UnreadDigestJob;
+import io.quarkus.logging.Log;
+import jakarta.annotation.security.PermitAll;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Runs background jobs on demand. On Lambda the instance is frozen between requests and
+ * the @Scheduled methods never fire, so EventBridge schedules (template.yaml) call these
+ * endpoints instead. Callers must send the configured token in X-Job-Token.
+ */
+@Path("/jobs")
+@Produces(MediaType.APPLICATION_JSON)
+@PermitAll
+public class JobResource {
+
+    @ConfigProperty(name = "app.jobs.trigger-token")
+    Optional<String> triggerToken;
+
+    @Inject
+    ImageDerivativeJob imageDerivativeJob;
+
+    @Inject
+    EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Inject
+    UnreadDigestJob unreadDigestJob;
+
+    @Inject
+    ConversationSummaryRepairJob conversationSummaryRepairJob;
+
+    /**
+     * Generate the derivatives of all queued images
+     */
+    @POST
+    @Path("/image-derivatives")
+    public Response runImageDerivatives(@HeaderParam("X-Job-Token") String token) {
+        checkToken(token);
+        int claimed = imageDerivativeJob.drain();
+        Log.debugf("POST /jobs/image-derivatives - %d jobs claimed", claimed);
+        return Response.ok(Map.of("processed", claimed)).build();
+    }
+
+    /**
+     * Send the due emails of the outbox
+     */
+    @POST
+    @Path("/email-outbox")
+    public Response runEmailOutbox(@HeaderParam("X-Job-Token") String token) {
+        checkToken(token);
+        int claimed = emailOutboxDispatcher.drain();
+        Log.debugf("POST /jobs/email-outbox - %d emails claimed", claimed);
+        return Response.ok(Map.of("processed", claimed)).build();
+    }
+
+    /**
+     * Queue the digests of messages left unread past the delay
+     */
+    @POST
+    @Path("/unread-digest")
+    public Response runUnreadDigest(@HeaderParam("X-Job-Token") String token) {
+        checkToken(token);
+        int recipients = unreadDigestJob.drain();
+        Log.debugf("POST /jobs/unread-digest - %d recipients", recipients);
+        return Response.ok(Map.of("processed", recipients)).build();
+    }
+
+    /**
+     * Repair one batch of conversation summaries that drifted from their messages
+     */
+    @POST
+    @Path("/conversation-summary-repair")
+    public Response runConversationSummaryRepair(@HeaderParam("X-Job-Token") String token) {
+        checkToken(token);
+        int repaired = conversationSummaryRepairJob.repair();
+        Log.debugf("POST /jobs/conversation-summary-repair - %d conversations repaired", repaired);
+        return Response.ok(Map.of("processed", repaired)).build();
+    }
+
+    private void checkToken(String token) {
+        String expected = triggerToken.filter(value -> !value.isBlank())
+                .orElseThrow(() -> new SecurityException("Job triggers are disabled"));
+        if (token == null || !MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            throw new SecurityException("Invalid job token");
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.leboncoincoin.resource;
 
+import com.leboncoincoin.cache.ListingQueryCache;
 import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.dto.CategorySuggestion;
 import com.leboncoincoin.dto.CreateListingRequest;
 import com.leboncoincoin.dto.UpdateListingRequest;
 import com.leboncoincoin.dto.DeleteListingRequest;
 import com.leboncoincoin.dto.ListingFilter;
 import com.leboncoincoin.dto.ListingResponse;
+import com.leboncoincoin.dto.ListingSort;
+import com.leboncoincoin.dto.SuggestCategoryRequest;
 import com.leboncoincoin.security.SecurityConfig;
 import com.leboncoincoin.service.ListingService;
 import com.leboncoincoin.service.UserService;
@@ -14,6 +18,7 @@ import io.quarkus.security.Authenticated;
 import jakarta.annotation.security.PermitAll;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
@@ -30,6 +35,9 @@ public class ListingResource {
     @Inject
     ListingService listingService;
 
+    @Inject
+    ListingQueryCache listingQueryCache;
+
     @Inject
     UserService userService;
 
@@ -46,18 +54,56 @@ public class ListingResource {
             @QueryParam("location") String location,
             @QueryParam("minPrice") BigDecimal minPrice,
             @QueryParam("maxPrice") BigDecimal maxPrice,
-            @QueryParam("search") String searchTerm) {
+            @QueryParam("search") String searchTerm,
+            @QueryParam("sort") String sort,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("limit") Integer limit) {
         
-        Log.infof("GET /listings - category=%s, location=%s, minPrice=%s, maxPrice=%s, search=%s",
+        Log.infof("GET /listings - category=%s, location=%s, minPrice=%s, maxPrice=%s, search=%s, sort=%s, cursor=%s, limit=%s",
+                category, location, minPrice, maxPrice, searchTerm, sort, cursor, limit);
+
+        ListingFilter filter = new ListingFilter(category, location, minPrice, maxPrice, searchTerm,
+                ListingSort.fromParam(sort));
+
+        // Deeper pages are not cached, they are the long tail of the traffic
+        if (cursor != null) {
+            return Response.ok(listingService.getListingsPage(filter, cursor, limit)).build();
+        }
+
+        // Paginated mode when the client asks for it, full list otherwise
+        byte[] response = limit != null
+                ? listingQueryCache.get(filter, limit, () -> listingService.getListingsPage(filter, null, limit))
+                : listingQueryCache.get(filter, null,
+                        () -> ListingResponse.fromAll(listingService.getListingsWithFilter(filter)));
+
+        return Response.ok(response, MediaType.APPLICATION_JSON).build();
+    }
+
+    @GET
+    @Path("/facets")
+    @PermitAll
+    public Response getListingFacets(
+            @QueryParam("category") String category,
+            @QueryParam("location") String location,
+            @QueryParam("minPrice") BigDecimal minPrice,
+            @QueryParam("maxPrice") BigDecimal maxPrice,
+            @QueryParam("search") String searchTerm) {
+
+        Log.infof("GET /listings/facets - category=%s, location=%s, minPrice=%s, maxPrice=%s, search=%s",
                 category, location, minPrice, maxPrice, searchTerm);
 
         ListingFilter filter = new ListingFilter(category, location, minPrice, maxPrice, searchTerm);
-        List<Listing> listings = listingService.getListingsWithFilter(filter);
-        List<ListingResponse> response = listings.stream()
-                .map(ListingResponse::from)
-                .toList();
+        byte[] response = listingQueryCache.getFacets(filter, () -> listingService.getFacets(filter));
 
-        return Response.ok(response).build();
+        return Response.ok(response, MediaType.APPLICATION_JSON).build();
+    }
+
+    @POST
+    @Path("/suggest-category")
+    @PermitAll
+    public List<CategorySuggestion> suggestCategory(@Valid @NotNull SuggestCategoryRequest request) {
+        Log.info("POST /listings/suggest-category");
+        return listingService.suggestCategories(request.title(), request.description());
     }
 
     @GET
@@ -73,13 +119,18 @@ public class ListingResource {
     @GET
     @Path("/user/{userId}")
     @PermitAll
-    public Response getListingsByUserId(@PathParam("userId") String userId) {
-        Log.infof("GET /listings/user/%s", userId);
+    public Response getListingsByUserId(
+            @PathParam("userId") String userId,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("limit") Integer limit) {
+        Log.infof("GET /listings/user/%s - cursor=%s, limit=%s", userId, cursor, limit);
+
+        if (cursor != null || limit != null) {
+            return Response.ok(listingService.getListingsPageByUserId(userId, cursor, limit)).build();
+        }
         
         List<Listing> listings = listingService.getListingsByUserId(userId);
-        List<ListingResponse> response = listings.stream()
-                .map(ListingResponse::from)
-                .toList();
+        List<ListingResponse> response = ListingResponse.fromAll(listings);
         
         return Response.ok(response).build();
     }
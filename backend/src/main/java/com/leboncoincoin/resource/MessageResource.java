@@ -1,9 +1,14 @@
 package com.leboncoincoin.resource;
 
+import com.leboncoincoin.dto.MessageCursor;
+import com.leboncoincoin.dto.MessagePage;
 import com.leboncoincoin.dto.MessageResponse;
+import com.leboncoincoin.dto.Pagination;
 import com.leboncoincoin.dto.SendMessageRequest;
 import com.leboncoincoin.entity.Conversation;
 import com.leboncoincoin.entity.Message;
+import com.leboncoincoin.notification.MessagingNotifier;
+import com.leboncoincoin.repository.ConversationRepository;
 import io.quarkus.security.Authenticated;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.inject.Inject;
@@ -14,6 +19,8 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,11 +33,24 @@ public class MessageResource {
     @Inject
     SecurityIdentity securityIdentity;
 
+    @Inject
+    ConversationRepository conversationRepository;
+
+    @Inject
+    MessagingNotifier messagingNotifier;
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+
     @ConfigProperty(name = "app.messaging.allow-self-messaging", defaultValue = "false")
     boolean allowSelfMessaging;
 
     @GET
-    public Response getMessages(@PathParam("conversationId") String conversationId) {
+    public Response getMessages(
+        @PathParam("conversationId") String conversationId,
+        @QueryParam("before") String before,
+        @QueryParam("after") String after,
+        @QueryParam("limit") Integer limit
+    ) {
         String userId = securityIdentity.getPrincipal().getName();
         
         Conversation conversation = Conversation.findById(conversationId);
@@ -43,8 +63,28 @@ public class MessageResource {
             return Response.status(Response.Status.FORBIDDEN).build();
         }
         
-        List<Message> messages = Message.findByConversationId(conversationId);
-        return Response.ok(messages.stream().map(MessageResponse::from).toList()).build();
+        // Full history unless the client asks for a page
+        if (before == null && after == null && limit == null) {
+            List<Message> messages = Message.findByConversationId(conversationId);
+            return Response.ok(messages.stream().map(message -> MessageResponse.from(message, conversation)).toList()).build();
+        }
+        
+        if (before != null && after != null) {
+            throw new IllegalArgumentException("before and after cannot be combined");
+        }
+        int pageSize = Pagination.pageSize(limit, DEFAULT_PAGE_SIZE);
+        MessageCursor afterCursor = MessageCursor.decode(after);
+        
+        MessagePage page;
+        if (afterCursor != null) {
+            List<Message> newer = new ArrayList<>(Message.findPageAfter(conversationId, afterCursor, pageSize));
+            Collections.reverse(newer);
+            page = MessagePage.of(newer, pageSize, true, afterCursor, conversation);
+        } else {
+            List<Message> older = Message.findPageBefore(conversationId, MessageCursor.decode(before), pageSize + 1);
+            page = MessagePage.of(older, pageSize, false, null, conversation);
+        }
+        return Response.ok(page).build();
     }
 
     @POST
@@ -73,9 +113,9 @@ public class MessageResource {
         message.isRead = false;
         message.persist();
         
-        // Update conversation's updatedAt
-        conversation.preUpdate();
-        conversation.persist();
+        // Last message, unread counters and updatedAt of the conversation
+        long recipientUnread = conversationRepository.recordMessage(message);
+        messagingNotifier.messageSent(conversation, message, recipientUnread);
         
         return Response.status(Response.Status.CREATED)
             .entity(MessageResponse.from(message))
@@ -96,6 +136,11 @@ public class MessageResource {
             return Response.status(Response.Status.NOT_FOUND).build();
         }
         
+        Conversation conversation = message.conversation;
+        if (!conversation.buyerId.equals(userId) && !conversation.sellerId.equals(userId)) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        
         // Only the recipient can mark as read (unless in self-messaging mode)
         if (message.senderId.equals(userId) && !allowSelfMessaging) {
             return Response.status(Response.Status.BAD_REQUEST)
@@ -103,10 +148,11 @@ public class MessageResource {
                 .build();
         }
         
-        message.isRead = true;
-        message.persist();
+        // Moves the recipient's watermark up to this message, earlier messages are read too
+        conversationRepository.markReadUpTo(conversation, message)
+                .ifPresent(readerUnread -> messagingNotifier.messageRead(conversation, message, readerUnread));
         
-        return Response.ok(MessageResponse.from(message)).build();
+        return Response.ok(MessageResponse.from(message, true)).build();
     }
 
     @PUT
@@ -125,15 +171,9 @@ public class MessageResource {
             return Response.status(Response.Status.FORBIDDEN).build();
         }
         
-        List<Message> messages = Message.findByConversationId(conversationId);
-        messages.stream()
-            .filter(m -> !m.senderId.equals(userId) && !m.isRead)
-            .forEach(m -> {
-                m.isRead = true;
-                m.persist();
-            });
+        conversationRepository.markAllRead(conversationId, userId)
+                .ifPresent(readerUnread -> messagingNotifier.conversationRead(conversation, userId, readerUnread));
         
         return Response.ok().build();
     }
 }
-
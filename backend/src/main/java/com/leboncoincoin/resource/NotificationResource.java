@@ -0,0 +1,49 @@
+package com.leboncoincoin.resource;
+
+import com.leboncoincoin.notification.NotificationBroker;
+import com.leboncoincoin.notification.UserNotification;
+import com.leboncoincoin.repository.ConversationRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.security.Authenticated;
+import io.quarkus.security.identity.SecurityIdentity;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+@Path("/notifications")
+@Authenticated
+public class NotificationResource {
+
+    @Inject
+    SecurityIdentity securityIdentity;
+
+    @Inject
+    NotificationBroker notificationBroker;
+
+    @Inject
+    ConversationRepository conversationRepository;
+
+    /**
+     * Server-Sent Events stream of the user's notifications, starting with the current unread count
+     */
+    @GET
+    @Path("/stream")
+    @Blocking
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<UserNotification> stream() {
+        String userId = securityIdentity.getPrincipal().getName();
+        long unreadCount = QuarkusTransaction.requiringNew()
+                .call(() -> conversationRepository.countUnreadByUserId(userId));
+
+        return Multi.createBy().concatenating().streams(
+                Multi.createFrom().item(UserNotification.unreadCount(unreadCount)),
+                notificationBroker.subscribe(userId)
+        );
+    }
+}
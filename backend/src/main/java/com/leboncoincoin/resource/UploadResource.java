@@ -2,12 +2,14 @@ package com.leboncoincoin.resource;
 
 import com.leboncoincoin.dto.PresignedUrlRequest;
 import com.leboncoincoin.dto.PresignedUrlResponse;
+import com.leboncoincoin.dto.PresignedUrlsRequest;
 import com.leboncoincoin.security.SecurityConfig;
 import com.leboncoincoin.service.S3Service;
 import io.quarkus.logging.Log;
 import io.quarkus.security.Authenticated;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
@@ -15,6 +17,8 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
+import java.util.List;
+
 @Path("/uploads")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -42,5 +46,16 @@ public class UploadResource {
 
         return Response.ok(response).build();
     }
-}
 
+    /**
+     * Presigned URLs for several images in one call, at most PresignedUrlsRequest.MAX_FILES
+     */
+    @POST
+    @Path("/presigned-urls")
+    public List<PresignedUrlResponse> generatePresignedUrls(@Valid @NotNull PresignedUrlsRequest request) {
+        Log.infof("POST /uploads/presigned-urls - %d files", request.files().size());
+
+        String userId = securityConfig.getCurrentUserId();
+        return s3Service.generatePresignedUploadUrls(request.files(), userId);
+    }
+}
@@ -1,8 +1,10 @@
 package com.leboncoincoin.resource;
 
+import com.leboncoincoin.cache.BadgeCounters;
 import com.leboncoincoin.entity.User;
 import com.leboncoincoin.dto.ListingResponse;
 import com.leboncoincoin.dto.UserResponse;
+import com.leboncoincoin.exception.ResourceNotFoundException;
 import com.leboncoincoin.security.SecurityConfig;
 import com.leboncoincoin.service.ListingService;
 import com.leboncoincoin.service.UserService;
@@ -35,6 +37,9 @@ public class UserResource {
     @Inject
     JsonWebToken jwt;
 
+    @Inject
+    BadgeCounters badgeCounters;
+
     @GET
     public Response getCurrentUser() {
         Log.info("GET /me");
@@ -45,7 +50,9 @@ public class UserResource {
         String name = securityConfig.getCurrentUserName();
 
         // Ensure user exists in database (create if first login)
-        User user = userService.ensureUserExists(userId, email, name);
+        userService.ensureUserExists(userId, email, name);
+        User user = userService.getUserById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         return Response.ok(UserResponse.from(user)).build();
     }
@@ -63,12 +70,20 @@ public class UserResource {
         // Auto-provision user on first contact even if no prior DB record exists
         userService.ensureUserExists(userId, email, name);
 
-        List<ListingResponse> listings = listingService.getListingsByUserId(userId)
-                .stream()
-                .map(ListingResponse::from)
-                .toList();
+        List<ListingResponse> listings = ListingResponse.fromAll(listingService.getListingsByUserId(userId));
 
         return Response.ok(listings).build();
     }
-}
 
+    /**
+     * Favorites and unread message counts for the navbar, served from in-memory counters
+     */
+    @GET
+    @Path("/badges")
+    public Response getBadges() {
+        String userId = securityConfig.getCurrentUserId();
+        Log.debugf("GET /me/badges for user %s", userId);
+
+        return Response.ok(badgeCounters.get(userId)).build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.leboncoincoin.search;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leboncoincoin.dto.CategorySuggestion;
+import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Suggests listing categories from the keyword dictionary in category-keywords.json
+ */
+@ApplicationScoped
+public class CategoryClassifier {
+
+    private static final String DICTIONARY = "category-keywords.json";
+
+    @ConfigProperty(name = "app.listings.categories.max-suggestions", defaultValue = "3")
+    int maxSuggestions;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private CategoryMatcher matcher;
+    private Map<String, String> canonicalNames;
+
+    @PostConstruct
+    void load() {
+        Map<String, List<String>> keywords = new LinkedHashMap<>();
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(DICTIONARY)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing category dictionary: " + DICTIONARY);
+            }
+            List<CategoryKeywords> entries = objectMapper.readValue(in, new TypeReference<>() {
+            });
+            entries.forEach(entry -> keywords.put(entry.category(), entry.keywords()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read category dictionary", e);
+        }
+
+        matcher = new CategoryMatcher(keywords);
+        canonicalNames = new HashMap<>();
+        for (String category : matcher.categories()) {
+            canonicalNames.put(CategoryMatcher.fold(category), category);
+        }
+        Log.debugf("Category classifier loaded %d categories", canonicalNames.size());
+    }
+
+    /**
+     * Ranked category suggestions for a listing title and description
+     */
+    public List<CategorySuggestion> suggest(String title, String description) {
+        return matcher.classify(title, description, maxSuggestions);
+    }
+
+    /**
+     * Dictionary spelling of the category, ignoring case and accents ("velo" → "Vélo"),
+     * or the trimmed input when it is not a known category
+     */
+    public String canonicalCategory(String category) {
+        if (category == null) {
+            return null;
+        }
+        return canonicalNames.getOrDefault(CategoryMatcher.fold(category), category.trim());
+    }
+
+    record CategoryKeywords(
+        String category,
+        List<String> keywords
+    ) {
+    }
+}
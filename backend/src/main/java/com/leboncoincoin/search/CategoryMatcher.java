@@ -0,0 +1,247 @@
+package com.leboncoincoin.search;
+
+import com.leboncoincoin.dto.CategorySuggestion;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aho–Corasick automaton over the category keywords.
+ * Text is folded (lowercase, accents stripped, punctuation as a single space) on the fly,
+ * so a title or description is classified in one pass without allocating a normalized copy.
+ * Keywords only match whole words: "car" matches "car de sport" but not "carte graphique".
+ */
+final class CategoryMatcher {
+
+    static final int TITLE_WEIGHT = 2;
+
+    private static final char SEPARATOR = ' ';
+    private static final int FOLD_LIMIT = 0x250;
+    private static final char[] FOLD = buildFoldTable();
+    private static final int SEPARATOR_SYMBOL = 0;
+    private static final int OTHER_SYMBOL = 1;
+
+    private final String[] categories;
+    private final int[] keywordCategory;
+    private final int[] keywordWeight;
+    private final int[] symbolOf;
+    private final int symbols;
+    private final int[] transitions;
+    private final int[][] outputs;
+
+    /**
+     * @param keywords keywords per category, in tie-break order
+     */
+    CategoryMatcher(Map<String, List<String>> keywords) {
+        categories = keywords.keySet().toArray(String[]::new);
+
+        // Dedupe keywords that fold to the same text ("vehicule" / "véhicule")
+        Map<String, Set<Integer>> categoriesByKeyword = new LinkedHashMap<>();
+        for (int c = 0; c < categories.length; c++) {
+            for (String keyword : keywords.get(categories[c])) {
+                String folded = fold(keyword);
+                if (!folded.isEmpty()) {
+                    categoriesByKeyword.computeIfAbsent(folded, k -> new HashSet<>()).add(c);
+                }
+            }
+        }
+
+        List<String> patterns = new ArrayList<>();
+        List<Integer> patternCategories = new ArrayList<>();
+        symbolOf = new int[FOLD_LIMIT];
+        Arrays.fill(symbolOf, OTHER_SYMBOL);
+        symbolOf[SEPARATOR] = SEPARATOR_SYMBOL;
+        int nextSymbol = OTHER_SYMBOL + 1;
+        int capacity = 1;
+        for (Map.Entry<String, Set<Integer>> entry : categoriesByKeyword.entrySet()) {
+            String pattern = SEPARATOR + entry.getKey() + SEPARATOR;
+            for (char ch : pattern.toCharArray()) {
+                if (ch >= FOLD_LIMIT) {
+                    throw new IllegalArgumentException("Unsupported character in keyword: " + entry.getKey());
+                }
+                if (symbolOf[ch] == OTHER_SYMBOL) {
+                    symbolOf[ch] = nextSymbol++;
+                }
+            }
+            for (int category : entry.getValue()) {
+                patterns.add(pattern);
+                patternCategories.add(category);
+            }
+            capacity += pattern.length();
+        }
+        symbols = nextSymbol;
+
+        keywordCategory = new int[patterns.size()];
+        keywordWeight = new int[patterns.size()];
+        int[] transitions = new int[capacity * symbols];
+        Arrays.fill(transitions, -1);
+        List<List<Integer>> ownOutputs = new ArrayList<>();
+        ownOutputs.add(new ArrayList<>());
+        int states = 1;
+
+        // Trie of the padded keywords
+        for (int k = 0; k < patterns.size(); k++) {
+            String pattern = patterns.get(k);
+            keywordCategory[k] = patternCategories.get(k);
+            keywordWeight[k] = pattern.trim().split(" ").length;
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int slot = state * symbols + symbolOf[pattern.charAt(i)];
+                if (transitions[slot] < 0) {
+                    transitions[slot] = states++;
+                    ownOutputs.add(new ArrayList<>());
+                }
+                state = transitions[slot];
+            }
+            ownOutputs.get(state).add(k);
+        }
+
+        // Failure links resolved breadth-first into a full DFA table
+        int[] fail = new int[states];
+        int[][] outputs = new int[states][];
+        outputs[0] = new int[0];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int s = 0; s < symbols; s++) {
+            int next = transitions[s];
+            if (next < 0) {
+                transitions[s] = 0;
+            } else {
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = merge(ownOutputs.get(state), outputs[fail[state]]);
+            for (int s = 0; s < symbols; s++) {
+                int slot = state * symbols + s;
+                int next = transitions[slot];
+                if (next < 0) {
+                    transitions[slot] = transitions[fail[state] * symbols + s];
+                } else {
+                    fail[next] = transitions[fail[state] * symbols + s];
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(transitions, states * symbols);
+        this.outputs = outputs;
+    }
+
+    String[] categories() {
+        return categories.clone();
+    }
+
+    /**
+     * Categories whose keywords appear in the text, best first.
+     * Each keyword counts once per field, weighted by its word count and TITLE_WEIGHT in the title.
+     */
+    List<CategorySuggestion> classify(String title, String description, int limit) {
+        int[] scores = new int[categories.length];
+        boolean[] seen = new boolean[keywordCategory.length];
+        scan(title, TITLE_WEIGHT, scores, seen);
+        Arrays.fill(seen, false);
+        scan(description, 1, scores, seen);
+
+        List<CategorySuggestion> suggestions = new ArrayList<>();
+        for (int c = 0; c < scores.length; c++) {
+            if (scores[c] > 0) {
+                suggestions.add(new CategorySuggestion(categories[c], scores[c]));
+            }
+        }
+        // Stable sort keeps dictionary order between equal scores
+        suggestions.sort((a, b) -> Integer.compare(b.score(), a.score()));
+        return suggestions.size() > limit ? List.copyOf(suggestions.subList(0, limit)) : suggestions;
+    }
+
+    private void scan(String text, int weight, int[] scores, boolean[] seen) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        int state = step(0, SEPARATOR_SYMBOL, weight, scores, seen);
+        boolean separated = true;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char ch = foldChar(text.charAt(i));
+            if (ch == SEPARATOR) {
+                if (separated) {
+                    continue;
+                }
+                separated = true;
+            } else {
+                separated = false;
+            }
+            state = step(state, ch < FOLD_LIMIT ? symbolOf[ch] : OTHER_SYMBOL, weight, scores, seen);
+        }
+        if (!separated) {
+            step(state, SEPARATOR_SYMBOL, weight, scores, seen);
+        }
+    }
+
+    private int step(int state, int symbol, int weight, int[] scores, boolean[] seen) {
+        int next = transitions[state * symbols + symbol];
+        for (int keyword : outputs[next]) {
+            if (!seen[keyword]) {
+                seen[keyword] = true;
+                scores[keywordCategory[keyword]] += weight * keywordWeight[keyword];
+            }
+        }
+        return next;
+    }
+
+    private static int[] merge(List<Integer> own, int[] inherited) {
+        int[] merged = Arrays.copyOf(inherited, inherited.length + own.size());
+        for (int i = 0; i < own.size(); i++) {
+            merged[inherited.length + i] = own.get(i);
+        }
+        return merged;
+    }
+
+    /**
+     * Folded form of the text with single spaces between words, as the automaton sees it
+     */
+    static String fold(String text) {
+        StringBuilder folded = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char ch = foldChar(text.charAt(i));
+            if (ch != SEPARATOR || (!folded.isEmpty() && folded.charAt(folded.length() - 1) != SEPARATOR)) {
+                folded.append(ch);
+            }
+        }
+        int end = folded.length();
+        if (end > 0 && folded.charAt(end - 1) == SEPARATOR) {
+            folded.setLength(end - 1);
+        }
+        return folded.toString();
+    }
+
+    private static char foldChar(char ch) {
+        if (ch < FOLD_LIMIT) {
+            return FOLD[ch];
+        }
+        return Character.isLetterOrDigit(ch) ? Character.toLowerCase(ch) : SEPARATOR;
+    }
+
+    private static char[] buildFoldTable() {
+        char[] table = new char[FOLD_LIMIT];
+        for (char ch = 0; ch < FOLD_LIMIT; ch++) {
+            if (!Character.isLetterOrDigit(ch)) {
+                table[ch] = SEPARATOR;
+                continue;
+            }
+            String base = Normalizer.normalize(String.valueOf(ch), Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}+", "")
+                    .toLowerCase();
+            table[ch] = base.length() == 1 ? base.charAt(0) : Character.toLowerCase(ch);
+        }
+        return table;
+    }
+}
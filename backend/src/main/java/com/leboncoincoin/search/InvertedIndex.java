@@ -0,0 +1,221 @@
+package com.leboncoincoin.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index ranked with BM25.
+ *
+ * Documents get an internal int id on insertion. An update tombstones the old id and
+ * appends the new version under a fresh id, so posting lists stay sorted and append-only;
+ * tombstoned postings are purged by {@link #compact()} once they pile up.
+ * Queries are conjunctive: a document must contain, for every query term, a term starting
+ * with it (prefix match, like the to_tsquery "term:*" of the database search).
+ */
+final class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final double COMPACTION_RATIO = 0.25;
+    private static final int MIN_TOMBSTONES_FOR_COMPACTION = 1024;
+
+    // Sorted so the terms sharing a prefix are one range
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<String, Integer> docByKey = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private String[] keyByDoc = new String[1024];
+    private int[] docLength = new int[1024];
+    private int nextDoc;
+    private int liveDocs;
+    private int tombstones;
+    private long totalLength;
+
+    /**
+     * Index (or re-index) a document from its term frequencies
+     */
+    void put(String key, Map<String, Integer> termFreqs) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            compactIfNeeded();
+            if (termFreqs.isEmpty()) {
+                return;
+            }
+
+            int doc = nextDoc++;
+            ensureCapacity(doc);
+            keyByDoc[doc] = key;
+            docByKey.put(key, doc);
+
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new PostingList()).add(doc, entry.getValue());
+                length += entry.getValue();
+            }
+            docLength[doc] = length;
+            totalLength += length;
+            liveDocs++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Keys of the documents matching all query terms as prefixes, best BM25 score first
+     */
+    List<String> search(List<String> terms, int maxHits) {
+        if (terms.isEmpty() || maxHits <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            for (String term : terms.stream().distinct().toList()) {
+                SortedMap<String, PostingList> matching = postings.subMap(term, term + Character.MAX_VALUE);
+                if (matching.isEmpty()) {
+                    return List.of();
+                }
+                // A prefix of several terms scores as one term occurring in any of them
+                lists.add(matching.size() == 1
+                        ? matching.values().iterator().next()
+                        : PostingList.union(matching.values()));
+            }
+            // Drive the intersection from the rarest term, probe the others by binary search
+            lists.sort(Comparator.comparingInt(PostingList::size));
+
+            float avgLength = liveDocs > 0 ? (float) totalLength / liveDocs : 1f;
+            PostingList rarest = lists.get(0);
+            long[] ranked = new long[rarest.size()];
+            int hits = 0;
+
+            candidates:
+            for (int i = 0; i < rarest.size(); i++) {
+                int doc = rarest.doc(i);
+                if (deleted.get(doc)) {
+                    continue;
+                }
+                float score = termScore(rarest.freqAt(i), rarest.size(), doc, avgLength);
+                for (int t = 1; t < lists.size(); t++) {
+                    PostingList list = lists.get(t);
+                    int freq = list.freq(doc);
+                    if (freq == 0) {
+                        continue candidates;
+                    }
+                    score += termScore(freq, list.size(), doc, avgLength);
+                }
+                // Scores are positive, so their float bits order like the scores themselves
+                ranked[hits++] = ((long) Float.floatToIntBits(score) << 32) | doc;
+            }
+
+            Arrays.sort(ranked, 0, hits);
+            int count = Math.min(hits, maxHits);
+            List<String> keys = new ArrayList<>(count);
+            for (int i = hits - 1; i >= hits - count; i--) {
+                keys.add(keyByDoc[(int) ranked[i]]);
+            }
+            return keys;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            docByKey.clear();
+            deleted.clear();
+            keyByDoc = new String[1024];
+            docLength = new int[1024];
+            nextDoc = 0;
+            liveDocs = 0;
+            tombstones = 0;
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Purge postings of removed documents
+     */
+    void compact() {
+        lock.writeLock().lock();
+        try {
+            compactLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private float termScore(int freq, int docFreq, int doc, float avgLength) {
+        // docFreq still counts tombstoned postings until the next compaction, close enough for ranking
+        double idf = Math.log(1 + (liveDocs - docFreq + 0.5) / (docFreq + 0.5));
+        float norm = K1 * (1 - B + B * docLength[doc] / avgLength);
+        return (float) (Math.max(idf, 0.0) * freq * (K1 + 1) / (freq + norm));
+    }
+
+    private void removeLocked(String key) {
+        Integer doc = docByKey.remove(key);
+        if (doc == null) {
+            return;
+        }
+        deleted.set(doc);
+        keyByDoc[doc] = null;
+        totalLength -= docLength[doc];
+        liveDocs--;
+        tombstones++;
+    }
+
+    private void compactIfNeeded() {
+        if (tombstones >= MIN_TOMBSTONES_FOR_COMPACTION && tombstones > COMPACTION_RATIO * liveDocs) {
+            compactLocked();
+        }
+    }
+
+    private void compactLocked() {
+        postings.values().forEach(list -> list.compact(deleted));
+        postings.values().removeIf(list -> list.size() == 0);
+        // Doc ids are never reused, so the deleted bits can stay set
+        tombstones = 0;
+    }
+
+    private void ensureCapacity(int doc) {
+        if (doc >= keyByDoc.length) {
+            int capacity = keyByDoc.length + (keyByDoc.length >> 1);
+            keyByDoc = Arrays.copyOf(keyByDoc, capacity);
+            docLength = Arrays.copyOf(docLength, capacity);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.leboncoincoin.search;
+
+import com.leboncoincoin.dto.ListingCursor;
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.event.ListingChangedEvent;
+import com.leboncoincoin.repository.ListingRepository;
+import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Embedded search engine over active listings (title, description, category, location).
+ * Built in the background at startup, then kept up to date from committed listing writes.
+ * Until the build completes, callers fall back to the database search.
+ */
+@ApplicationScoped
+public class ListingSearchIndex {
+
+    private static final int TITLE_WEIGHT = 2;
+    private static final int BUILD_BATCH_SIZE = 1000;
+
+    @ConfigProperty(name = "app.listings.search.index.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "app.listings.search.index.max-hits", defaultValue = "1000")
+    int maxHits;
+
+    @Inject
+    ListingRepository listingRepository;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private volatile boolean ready;
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            Thread.ofVirtual().name("listing-index-build").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Rebuild the whole index from the database, in keyset-paginated batches
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        index.clear();
+
+        try {
+            ListingCursor cursor = null;
+            while (true) {
+                ListingCursor from = cursor;
+                List<Listing> batch = QuarkusTransaction.requiringNew()
+                        .call(() -> listingRepository.findPageWithFilter(null, from, BUILD_BATCH_SIZE));
+                boolean hasMore = batch.size() > BUILD_BATCH_SIZE;
+                List<Listing> rows = hasMore ? batch.subList(0, BUILD_BATCH_SIZE) : batch;
+                // A write committed while this batch is indexed may be overwritten by the
+                // version read here; the window is one batch and the next write fixes it
+                rows.forEach(this::index);
+                if (!hasMore) {
+                    break;
+                }
+                cursor = ListingCursor.after(rows.get(rows.size() - 1));
+            }
+            ready = true;
+            Log.infof("Listing search index built: %d listings in %d ms",
+                    index.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            Log.errorf(e, "Failed to build listing search index, falling back to database search");
+        }
+    }
+
+    public boolean isAvailable() {
+        return enabled && ready;
+    }
+
+    /**
+     * Ids of the listings matching every term of the query as a prefix, best BM25 score first.
+     * Empty when the database has to search instead: a term too short to be indexed ("v" while
+     * typing) would be ignored here but not there, and callers filter, sort and paginate the ids,
+     * so a set truncated at max-hits would drop matches.
+     */
+    public Optional<List<String>> search(String text) {
+        List<String> terms = SearchTokenizer.tokenize(text);
+        if (terms.isEmpty() || terms.size() != SearchTokenizer.tokenize(text, 1).size()) {
+            return Optional.empty();
+        }
+        List<String> ids = index.search(terms, maxHits + 1);
+        return ids.size() > maxHits ? Optional.empty() : Optional.of(ids);
+    }
+
+    void onListingChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) ListingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        switch (event.type()) {
+            case CREATED, UPDATED -> index(event.listing());
+            case DELETED -> index.remove(event.listing().id);
+        }
+    }
+
+    private void index(Listing listing) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        addTerms(termFreqs, listing.title, TITLE_WEIGHT);
+        addTerms(termFreqs, listing.description, 1);
+        addTerms(termFreqs, listing.category, 1);
+        addTerms(termFreqs, listing.location, 1);
+        index.put(listing.id, termFreqs);
+    }
+
+    private static void addTerms(Map<String, Integer> termFreqs, String text, int weight) {
+        for (String term : SearchTokenizer.tokenize(text)) {
+            termFreqs.merge(term, weight, Integer::sum);
+        }
+    }
+}
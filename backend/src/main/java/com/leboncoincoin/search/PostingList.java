@@ -0,0 +1,96 @@
+package com.leboncoincoin.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Postings of one term as parallel primitive arrays (doc ids ascending, term frequencies).
+ * Doc ids are handed out monotonically, so appending keeps the list sorted.
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] docs = new int[INITIAL_CAPACITY];
+    private int[] freqs = new int[INITIAL_CAPACITY];
+    private int size;
+
+    void add(int doc, int freq) {
+        if (size == docs.length) {
+            int capacity = size + (size >> 1) + 1;
+            docs = Arrays.copyOf(docs, capacity);
+            freqs = Arrays.copyOf(freqs, capacity);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+    }
+
+    /**
+     * Frequency of the term in the given doc, 0 if absent
+     */
+    int freq(int doc) {
+        int pos = Arrays.binarySearch(docs, 0, size, doc);
+        return pos >= 0 ? freqs[pos] : 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int doc(int index) {
+        return docs[index];
+    }
+
+    int freqAt(int index) {
+        return freqs[index];
+    }
+
+    /**
+     * Drop postings of deleted docs and release unused capacity
+     */
+    void compact(BitSet deleted) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!deleted.get(docs[i])) {
+                docs[kept] = docs[i];
+                freqs[kept] = freqs[i];
+                kept++;
+            }
+        }
+        size = kept;
+        docs = Arrays.copyOf(docs, Math.max(kept, 1));
+        freqs = Arrays.copyOf(freqs, Math.max(kept, 1));
+    }
+
+    /**
+     * Union of several posting lists, frequencies of a doc present in more than one summed
+     */
+    static PostingList union(Collection<PostingList> lists) {
+        int total = 0;
+        for (PostingList list : lists) {
+            total += list.size;
+        }
+        // doc in the high bits, so sorting orders by doc
+        long[] entries = new long[total];
+        int n = 0;
+        for (PostingList list : lists) {
+            for (int i = 0; i < list.size; i++) {
+                entries[n++] = ((long) list.docs[i] << 32) | list.freqs[i];
+            }
+        }
+        Arrays.sort(entries);
+
+        PostingList union = new PostingList();
+        for (int i = 0; i < total; ) {
+            int doc = (int) (entries[i] >>> 32);
+            int freq = 0;
+            while (i < total && (int) (entries[i] >>> 32) == doc) {
+                freq += (int) entries[i++];
+            }
+            union.add(doc, freq);
+        }
+        return union;
+    }
+}
@@ -0,0 +1,43 @@
+package com.leboncoincoin.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into lowercase, accent-free terms ("Vélo Électrique" → [velo, electrique])
+ */
+final class SearchTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private SearchTokenizer() {
+    }
+
+    static List<String> tokenize(String text) {
+        return tokenize(text, MIN_TERM_LENGTH);
+    }
+
+    /**
+     * Terms of at least minLength characters
+     */
+    static List<String> tokenize(String text, int minLength) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase();
+        for (String term : SEPARATORS.split(normalized)) {
+            if (term.length() >= minLength) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+}
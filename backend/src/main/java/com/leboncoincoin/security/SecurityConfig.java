@@ -1,6 +1,5 @@
 package com.leboncoincoin.security;
 
-import com.leboncoincoin.entity.User;
 import com.leboncoincoin.entity.UserRole;
 import io.quarkus.security.identity.SecurityIdentity;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -13,6 +12,12 @@ import jakarta.inject.Inject;
 @ApplicationScoped
 public class SecurityConfig {
 
+    /**
+     * Identity attribute holding the database UserRole, added by UserRoleAugmentor.
+     * Identity roles are not used for admin checks since OIDC maps token groups to roles.
+     */
+    public static final String USER_ROLE_ATTRIBUTE = "leboncoincoin.user-role";
+
     @Inject
     SecurityIdentity securityIdentity;
 
@@ -60,33 +65,10 @@ public class SecurityConfig {
     }
 
     /**
-     * Check if current user has admin role
+     * Check if current user has the ADMIN database role, from the identity (no database lookup)
      */
     public boolean isAdmin() {
-        if (!isAuthenticated()) {
-            return false;
-        }
-        
-        String userId = getCurrentUserId();
-        User user = User.findById(userId);
-        
-        if (user == null) {
-            return false;
-        }
-        
-        return user.isAdmin();
-    }
-
-    /**
-     * Get current user from database
-     */
-    public User getCurrentUser() {
-        if (!isAuthenticated()) {
-            return null;
-        }
-        
-        String userId = getCurrentUserId();
-        return User.findById(userId);
+        return isAuthenticated() && securityIdentity.getAttribute(USER_ROLE_ATTRIBUTE) == UserRole.ADMIN;
     }
 }
 
@@ -0,0 +1,42 @@
+package com.leboncoincoin.security;
+
+import com.leboncoincoin.entity.UserRole;
+import io.quarkus.security.identity.AuthenticationRequestContext;
+import io.quarkus.security.identity.SecurityIdentity;
+import io.quarkus.security.identity.SecurityIdentityAugmentor;
+import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Adds the database role of the user to the identity as an attribute, so admin checks read the
+ * identity instead of the users table. Roles come from UserRoleCache.
+ */
+@ApplicationScoped
+public class UserRoleAugmentor implements SecurityIdentityAugmentor {
+
+    @Inject
+    UserRoleCache roleCache;
+
+    @Override
+    public Uni<SecurityIdentity> augment(SecurityIdentity identity, AuthenticationRequestContext context) {
+        if (identity.isAnonymous()) {
+            return Uni.createFrom().item(identity);
+        }
+
+        String userId = identity.getPrincipal().getName();
+        UserRole cached = roleCache.getIfPresent(userId);
+        if (cached != null) {
+            return Uni.createFrom().item(withRole(identity, cached));
+        }
+        // Cache miss queries the database, off the event loop
+        return context.runBlocking(() -> withRole(identity, roleCache.get(userId)));
+    }
+
+    private static SecurityIdentity withRole(SecurityIdentity identity, UserRole role) {
+        return QuarkusSecurityIdentity.builder(identity)
+                .addAttribute(SecurityConfig.USER_ROLE_ATTRIBUTE, role)
+                .build();
+    }
+}
@@ -0,0 +1,68 @@
+package com.leboncoincoin.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.leboncoincoin.entity.UserRole;
+import com.leboncoincoin.repository.UserRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+/**
+ * Database role of users, keyed by user id. Roles are changed directly in the users table,
+ * the TTL bounds how long such a change takes to apply.
+ * Users not in the database yet get the default USER role.
+ */
+@ApplicationScoped
+public class UserRoleCache {
+
+    @ConfigProperty(name = "app.security.role-cache.max-size", defaultValue = "10000")
+    long maxSize;
+
+    @ConfigProperty(name = "app.security.role-cache.ttl", defaultValue = "PT1M")
+    Duration ttl;
+
+    @Inject
+    UserRepository userRepository;
+
+    private Cache<String, UserRole> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public UserRole getIfPresent(String userId) {
+        return cache.getIfPresent(userId);
+    }
+
+    /**
+     * Role of the user, loaded on a miss. Blocking.
+     */
+    public UserRole get(String userId) {
+        return cache.get(userId, id -> QuarkusTransaction.joiningExisting()
+                .call(() -> userRepository.findRoleById(id).orElse(UserRole.USER)));
+    }
+
+    public Stats stats() {
+        CacheStats stats = cache.stats();
+        return new Stats(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    public record Stats(
+        long size,
+        long hits,
+        long misses,
+        long evictions
+    ) {
+    }
+}
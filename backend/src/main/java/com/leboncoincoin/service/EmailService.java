@@ -1,24 +1,43 @@
 package com.leboncoincoin.service;
 
-import com.leboncoincoin.dto.EmailRequest;
+import com.leboncoincoin.repository.EmailOutboxRepository;
+import com.leboncoincoin.repository.UnreadDigestRepository.UnreadConversation;
+import io.micrometer.core.annotation.Timed;
 import io.quarkus.logging.Log;
 import io.quarkus.mailer.Mail;
 import io.quarkus.mailer.Mailer;
-import io.quarkus.qute.Template;
-import io.quarkus.qute.Location;
+import io.quarkus.qute.CheckedTemplate;
+import io.quarkus.qute.TemplateInstance;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import software.amazon.awssdk.services.ses.SesClient;
 import software.amazon.awssdk.services.ses.model.*;
 
-import java.util.Map;
+import java.util.List;
 import java.util.Optional;
 
 @ApplicationScoped
 public class EmailService {
 
+    /**
+     * Email templates in templates/EmailService, validated and parsed once at build time.
+     * Values are HTML-escaped when rendered.
+     */
+    @CheckedTemplate
+    public static class Templates {
+        public static native TemplateInstance welcome(String userName, String appName, String appUrl);
+
+        public static native TemplateInstance contact(String reason, String userName, String userEmail,
+                                                      String userId, String message);
+
+        public static native TemplateInstance digest(String userName, long unreadCount,
+                                                     List<UnreadConversation> conversations,
+                                                     int moreConversations, String appUrl);
+    }
+
     @ConfigProperty(name = "app.email.provider")
     Optional<String> emailProvider; // "smtp" for dev (MailHog), "ses" for prod
 
@@ -28,55 +47,59 @@ public class EmailService {
     @ConfigProperty(name = "app.email.from-name")
     Optional<String> fromName;
 
+    @ConfigProperty(name = "app.email.app-url", defaultValue = "http://localhost:5173")
+    String appUrl;
+
     @Inject
     Instance<Mailer> mailer; // For SMTP (MailHog in dev)
 
     @Inject
     Instance<SesClient> sesClient; // For AWS SES in production
 
+    @Inject
+    EmailOutboxRepository emailOutboxRepository;
+
+    /**
+     * Render a typed template and queue it in the caller's transaction, EmailOutboxDispatcher
+     * delivers it once committed
+     */
+    @Transactional
+    public void queue(String type, String to, String subject, TemplateInstance template) {
+        queue(type, to, subject, template.render());
+    }
+
+    /**
+     * Queue an already rendered email in the caller's transaction
+     */
+    @Transactional
+    public void queue(String type, String to, String subject, String htmlContent) {
+        String id = emailOutboxRepository.enqueue(type, to, subject, htmlContent);
+        Log.debugf("Queued %s email %s to %s", type, id, to);
+    }
+
     /**
-     * Send an email using the configured provider (SMTP for dev, SES for prod)
+     * Send a rendered email with the configured provider, failures propagate to the caller
      */
-    public void sendEmail(EmailRequest emailRequest) {
+    @Timed(value = "email.send", description = "Delivery of one email through SMTP or SES")
+    public void deliver(String to, String subject, String htmlContent) {
         String provider = emailProvider.orElse("smtp");
-        Log.infof("Sending email to %s with subject: %s using provider: %s", 
-                emailRequest.to(), emailRequest.subject(), provider);
-
-        try {
-            String htmlContent = renderTemplate(emailRequest.templateName(), emailRequest.templateData());
-
-            if ("ses".equalsIgnoreCase(provider)) {
-                sendWithSES(emailRequest.to(), emailRequest.subject(), htmlContent);
-            } else {
-                sendWithSMTP(emailRequest.to(), emailRequest.subject(), htmlContent);
-            }
-
-            Log.infof("Email sent successfully to %s", emailRequest.to());
-        } catch (Exception e) {
-            Log.errorf(e, "Failed to send email to %s", emailRequest.to());
-            throw new RuntimeException("Failed to send email", e);
+        Log.debugf("Sending email to %s with subject: %s using provider: %s", to, subject, provider);
+
+        if ("ses".equalsIgnoreCase(provider)) {
+            sendWithSES(to, subject, htmlContent);
+        } else {
+            sendWithSMTP(to, subject, htmlContent);
         }
     }
 
     /**
-     * Send welcome email to new user
+     * Queue the welcome email of a new user in the caller's transaction
      */
-    public void sendWelcomeEmail(String userEmail, String userName) {
-        Log.infof("Sending welcome email to %s (%s)", userName, userEmail);
-
-        Map<String, Object> data = Map.of(
-            "userName", userName,
-            "appName", "LMC Annonces"
-        );
-
-        EmailRequest request = EmailRequest.of(
-            userEmail,
-            "Bienvenue sur LMC Annonces ! 🎉",
-            "welcome",
-            data
-        );
-
-        sendEmail(request);
+    public void queueWelcomeEmail(String userEmail, String userName) {
+        Log.infof("Queueing welcome email to %s (%s)", userName, userEmail);
+
+        queue("welcome", userEmail, "Bienvenue sur LMC Annonces ! 🎉",
+                Templates.welcome(userName, "LMC Annonces", appUrl));
     }
 
     /**
@@ -151,176 +174,4 @@ public class EmailService {
 
         sesClient.get().sendEmail(emailRequest);
     }
-
-    /**
-     * Render Qute template with data
-     */
-    private String renderTemplate(String templateName, Map<String, Object> data) {
-        // For now, return a simple HTML template
-        // In a real implementation, you would use Qute to render templates
-        return generateSimpleTemplate(templateName, data);
-    }
-
-    /**
-     * Generate a simple HTML template (fallback)
-     * In production, use Qute templates
-     */
-    private String generateSimpleTemplate(String templateName, Map<String, Object> data) {
-        if ("welcome".equals(templateName)) {
-            String userName = (String) data.getOrDefault("userName", "Utilisateur");
-            String appName = (String) data.getOrDefault("appName", "LMC Annonces");
-
-            return String.format("""
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <meta charset="UTF-8">
-                    <style>
-                        body {
-                            font-family: Arial, sans-serif;
-                            line-height: 1.6;
-                            color: #333;
-                            max-width: 600px;
-                            margin: 0 auto;
-                            padding: 20px;
-                        }
-                        .header {
-                            background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%);
-                            color: white;
-                            padding: 30px;
-                            text-align: center;
-                            border-radius: 10px 10px 0 0;
-                        }
-                        .content {
-                            background: #f9f9f9;
-                            padding: 30px;
-                            border-radius: 0 0 10px 10px;
-                        }
-                        .button {
-                            display: inline-block;
-                            background: #667eea;
-                            color: white;
-                            padding: 12px 30px;
-                            text-decoration: none;
-                            border-radius: 5px;
-                            margin: 20px 0;
-                        }
-                        .footer {
-                            text-align: center;
-                            margin-top: 20px;
-                            color: #666;
-                            font-size: 12px;
-                        }
-                    </style>
-                </head>
-                <body>
-                    <div class="header">
-                        <h1>🎉 Bienvenue sur %s !</h1>
-                    </div>
-                    <div class="content">
-                        <h2>Bonjour %s,</h2>
-                        <p>Nous sommes ravis de vous accueillir sur notre plateforme de petites annonces !</p>
-                        <p>Avec %s, vous pouvez :</p>
-                        <ul>
-                            <li>📝 Publier des annonces gratuitement</li>
-                            <li>🔍 Rechercher des articles près de chez vous</li>
-                            <li>💬 Contacter directement les vendeurs</li>
-                            <li>⭐ Sauvegarder vos annonces favorites</li>
-                        </ul>
-                        <p>N'hésitez pas à explorer la plateforme et à publier votre première annonce !</p>
-                        <p style="text-align: center;">
-                            <a href="http://localhost:5173" class="button">Commencer à explorer</a>
-                        </p>
-                    </div>
-                    <div class="footer">
-                        <p>© 2024 %s - Tous droits réservés</p>
-                        <p>Cet email a été envoyé automatiquement, merci de ne pas y répondre.</p>
-                    </div>
-                </body>
-                </html>
-                """, appName, userName, appName, appName);
-        }
-
-        if ("contact".equals(templateName)) {
-            // For contact emails, the HTML is already generated in ContactResource
-            // This is just a fallback
-            String reason = (String) data.getOrDefault("reason", "Contact");
-            String message = (String) data.getOrDefault("message", "");
-            String userName = (String) data.getOrDefault("userName", "Utilisateur");
-            String userEmail = (String) data.getOrDefault("userEmail", "Non connecté");
-            String userId = (String) data.getOrDefault("userId", "Anonyme");
-
-            return String.format("""
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <meta charset="UTF-8">
-                    <style>
-                        body {
-                            font-family: Arial, sans-serif;
-                            line-height: 1.6;
-                            color: #333;
-                            max-width: 600px;
-                            margin: 0 auto;
-                            padding: 20px;
-                        }
-                        .header {
-                            background: linear-gradient(135deg, #FFD700 0%%, #FF9500 100%%);
-                            color: white;
-                            padding: 30px;
-                            text-align: center;
-                            border-radius: 10px 10px 0 0;
-                        }
-                        .content {
-                            background: #f9f9f9;
-                            padding: 30px;
-                            border-radius: 0 0 10px 10px;
-                        }
-                        .info-box {
-                            background: white;
-                            padding: 15px;
-                            border-left: 4px solid #FFD700;
-                            margin: 15px 0;
-                        }
-                        .message-box {
-                            background: white;
-                            padding: 20px;
-                            border-radius: 5px;
-                            margin: 20px 0;
-                            white-space: pre-wrap;
-                        }
-                    </style>
-                </head>
-                <body>
-                    <div class="header">
-                        <h1>🦆 Nouveau message de contact</h1>
-                    </div>
-                    <div class="content">
-                        <div class="info-box">
-                            <strong>Raison :</strong> %s<br>
-                            <strong>Utilisateur :</strong> %s<br>
-                            <strong>Email :</strong> %s<br>
-                            <strong>ID Utilisateur :</strong> %s
-                        </div>
-                        <h3>Message :</h3>
-                        <div class="message-box">%s</div>
-                    </div>
-                </body>
-                </html>
-                """, reason, userName, userEmail, userId, escapeHtml(message));
-        }
-
-        return "<html><body><h1>Email Template</h1></body></html>";
-    }
-
-    private String escapeHtml(String text) {
-        if (text == null) return "";
-        return text
-            .replace("&", "&amp;")
-            .replace("<", "&lt;")
-            .replace(">", "&gt;")
-            .replace("\"", "&quot;")
-            .replace("'", "&#39;");
-    }
 }
-
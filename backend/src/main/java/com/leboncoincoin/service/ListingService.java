@@ -2,30 +2,61 @@ package com.leboncoincoin.service;
 
 import com.leboncoincoin.entity.Conversation;
 import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.dto.CategorySuggestion;
 import com.leboncoincoin.dto.CreateListingRequest;
 import com.leboncoincoin.dto.UpdateListingRequest;
 import com.leboncoincoin.dto.DeleteListingRequest;
+import com.leboncoincoin.dto.ListingCursor;
+import com.leboncoincoin.dto.ListingFacetsResponse;
 import com.leboncoincoin.dto.ListingFilter;
+import com.leboncoincoin.dto.ListingPage;
+import com.leboncoincoin.dto.Pagination;
+import com.leboncoincoin.event.ListingChangedEvent;
 import com.leboncoincoin.exception.ResourceNotFoundException;
+import com.leboncoincoin.repository.FavoriteRepository;
 import com.leboncoincoin.repository.ListingRepository;
+import com.leboncoincoin.search.CategoryClassifier;
+import com.leboncoincoin.search.ListingSearchIndex;
 import com.leboncoincoin.security.SecurityConfig;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
 import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @ApplicationScoped
 public class ListingService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int TOP_LOCATIONS = 10;
+
     @Inject
     ListingRepository listingRepository;
 
     @Inject
     SecurityConfig securityConfig;
 
+    @Inject
+    FavoriteRepository favoriteRepository;
+
+    @Inject
+    ListingSearchIndex searchIndex;
+
+    @Inject
+    CategoryClassifier categoryClassifier;
+
+    @Inject
+    Event<ListingChangedEvent> listingChanged;
+
     @Transactional
     public Listing createListing(CreateListingRequest request, String userId) {
         Log.infof("Creating listing for user: %s", userId);
@@ -34,16 +65,22 @@ public class ListingService {
             request.title(),
             request.description(),
             request.price(),
-            request.category(),
+            categoryClassifier.canonicalCategory(request.category()),
             request.location(),
             request.imageUrls(),
             userId
         );
         
         listingRepository.persist(listing);
+        listingChanged.fire(ListingChangedEvent.created(listing));
         return listing;
     }
 
+    public List<CategorySuggestion> suggestCategories(String title, String description) {
+        Log.debugf("Suggesting categories for title: %s", title);
+        return categoryClassifier.suggest(title, description);
+    }
+
     public Listing getListingById(String id) {
         Log.debugf("Getting listing by id: %s", id);
         Listing listing = listingRepository.findByIdAndNotDeleted(id);
@@ -64,6 +101,15 @@ public class ListingService {
         if (filter == null || !filter.hasFilters()) {
             return getAllListings();
         }
+
+        Optional<List<String>> rankedIds = indexedMatches(filter);
+        if (rankedIds.isPresent()) {
+            List<Listing> listings = listingRepository.findWithFilterAmong(filter, rankedIds.get());
+            if (filter.sortByRelevance()) {
+                return sortByRank(listings, rankedIds.get());
+            }
+            return listings;
+        }
         
         return listingRepository.findWithFilter(filter);
     }
@@ -73,6 +119,53 @@ public class ListingService {
         return listingRepository.findByUserId(userId);
     }
 
+    public ListingPage getListingsPage(ListingFilter filter, String cursor, Integer limit) {
+        Log.debugf("Getting listings page with filter: %s, cursor: %s, limit: %s", filter, cursor, limit);
+        if (filter != null && filter.sortByRelevance()) {
+            throw new IllegalArgumentException("Relevance sort is not available with cursor pagination");
+        }
+        int pageSize = Pagination.pageSize(limit, DEFAULT_PAGE_SIZE);
+        ListingCursor position = ListingCursor.decode(cursor);
+        List<Listing> rows = indexedMatches(filter)
+            .map(ids -> listingRepository.findPageWithFilterAmong(filter, ids, position, pageSize))
+            .orElseGet(() -> listingRepository.findPageWithFilter(filter, position, pageSize));
+        return ListingPage.of(rows, pageSize);
+    }
+
+    public ListingPage getListingsPageByUserId(String userId, String cursor, Integer limit) {
+        Log.debugf("Getting listings page by userId: %s, cursor: %s, limit: %s", userId, cursor, limit);
+        int pageSize = Pagination.pageSize(limit, DEFAULT_PAGE_SIZE);
+        List<Listing> rows = listingRepository.findPageByUserId(userId, ListingCursor.decode(cursor), pageSize);
+        return ListingPage.of(rows, pageSize);
+    }
+
+    public ListingFacetsResponse getFacets(ListingFilter filter) {
+        Log.debugf("Getting listing facets with filter: %s", filter);
+        List<String> candidateIds = indexedMatches(filter).orElse(null);
+        return listingRepository.countFacets(filter, candidateIds, TOP_LOCATIONS);
+    }
+
+    /**
+     * Listings matching the search term according to the in-memory index, empty when the
+     * database has to search: no term, index not built yet, or more matches than the index returns
+     */
+    private Optional<List<String>> indexedMatches(ListingFilter filter) {
+        if (filter == null || !filter.hasSearchTerm() || !searchIndex.isAvailable()) {
+            return Optional.empty();
+        }
+        return searchIndex.search(filter.searchTerm());
+    }
+
+    private List<Listing> sortByRank(List<Listing> listings, List<String> rankedIds) {
+        Map<String, Integer> rankById = new HashMap<>();
+        for (int i = 0; i < rankedIds.size(); i++) {
+            rankById.put(rankedIds.get(i), i);
+        }
+        return listings.stream()
+            .sorted(Comparator.comparingInt(listing -> rankById.get(listing.id)))
+            .toList();
+    }
+
     @Transactional
     public Listing updateListing(String id, UpdateListingRequest request, String userId) {
         Log.infof("Updating listing: id=%s, userId=%s", id, userId);
@@ -84,11 +177,13 @@ public class ListingService {
             throw new SecurityException("You are not authorized to update this listing");
         }
         
+        String previousCategory = listing.category;
+
         // Update fields
         listing.title = request.title();
         listing.description = request.description();
         listing.price = request.price();
-        listing.category = request.category();
+        listing.category = categoryClassifier.canonicalCategory(request.category());
         listing.location = request.location();
         listing.imageUrls = request.imageUrls() != null 
             ? request.imageUrls() 
@@ -96,6 +191,7 @@ public class ListingService {
         
         // updatedAt will be automatically set by @PreUpdate
         listingRepository.persist(listing);
+        listingChanged.fire(ListingChangedEvent.updated(listing, previousCategory));
         return listing;
     }
 
@@ -127,9 +223,13 @@ public class ListingService {
         
         // Delete associated conversations (hard delete) since listing is soft-deleted
         List<Conversation> conversations = Conversation.findByListingId(id);
+        Set<String> affectedUserIds = new HashSet<>(favoriteRepository.findUserIdsByListingId(id));
         for (Conversation conversation : conversations) {
+            affectedUserIds.add(conversation.buyerId);
+            affectedUserIds.add(conversation.sellerId);
             conversation.delete();
         }
+        listingChanged.fire(ListingChangedEvent.deleted(listing, affectedUserIds));
         
         Log.infof("Listing %s soft-deleted with feedback for analytics, deleted %d conversations", id, conversations.size());
     }
@@ -1,12 +1,17 @@
 package com.leboncoincoin.service;
 
+import com.leboncoincoin.dto.PresignedUrlRequest;
 import com.leboncoincoin.dto.PresignedUrlResponse;
+import io.micrometer.core.annotation.Timed;
 import io.quarkus.logging.Log;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
@@ -17,6 +22,7 @@ import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignReques
 
 import java.net.URI;
 import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 import java.util.Optional;
 
@@ -47,9 +53,39 @@ public class S3Service {
     @Inject
     S3Client s3Client;
 
+    /**
+     * Thread-safe, built once: credentials, region and HTTP configuration are resolved up front
+     */
+    private S3Presigner presigner;
+
+    @PostConstruct
+    void init() {
+        presigner = createPresigner();
+    }
+
+    @PreDestroy
+    void close() {
+        presigner.close();
+    }
+
+    @Timed(value = "s3.requests", extraTags = {"operation", "presign"})
     public PresignedUrlResponse generatePresignedUploadUrl(String filename, String contentType, String userId) {
         Log.infof("Generating presigned URL for file: %s, user: %s", filename, userId);
+        return presign(filename, contentType, userId);
+    }
 
+    /**
+     * Presigned upload URLs for several files at once, in the order of the requests
+     */
+    @Timed(value = "s3.requests", extraTags = {"operation", "presign-batch"})
+    public List<PresignedUrlResponse> generatePresignedUploadUrls(List<PresignedUrlRequest> files, String userId) {
+        Log.infof("Generating %d presigned URLs for user: %s", files.size(), userId);
+        return files.stream()
+                .map(file -> presign(file.filename(), file.contentType(), userId))
+                .toList();
+    }
+
+    private PresignedUrlResponse presign(String filename, String contentType, String userId) {
         // Generate unique object key
         String fileExtension = getFileExtension(filename);
         String objectKey = String.format("%s/%s%s", userId, UUID.randomUUID(), fileExtension);
@@ -65,9 +101,6 @@ public class S3Service {
                 .putObjectRequest(putObjectRequest)
                 .build();
 
-        // Create presigner with proper configuration
-        S3Presigner presigner = createPresigner();
-        
         PresignedPutObjectRequest presignedRequest = presigner.presignPutObject(presignRequest);
         String uploadUrl = presignedRequest.url().toString();
         
@@ -79,27 +112,61 @@ public class S3Service {
             Log.infof("Converted URL to path-style: %s", uploadUrl);
         }
         
-        // Generate public URL based on whether we're using MinIO or AWS S3
-        String publicUrl;
-        if (endpointOverride.isPresent()) {
-            // MinIO/Local S3 - use endpoint override with path-style
-            publicUrl = String.format("%s/%s/%s", endpointOverride.get(), bucketName, objectKey);
-        } else {
-            // AWS S3 - use standard S3 URL
-            publicUrl = String.format("https://%s.s3.%s.amazonaws.com/%s", 
-                    bucketName, region, objectKey);
+        String publicUrl = publicUrlOf(objectKey);
+
+        Log.debugf("Generated presigned URL for object: %s", objectKey);
+        Log.debugf("Upload URL: %s", uploadUrl);
+        Log.debugf("Public URL: %s", publicUrl);
+
+        return new PresignedUrlResponse(uploadUrl, objectKey, publicUrl);
+    }
+
+    /**
+     * Public URL of an object of the bucket
+     */
+    public String publicUrlOf(String objectKey) {
+        return publicBaseUrl() + "/" + objectKey;
+    }
+
+    /**
+     * Object key behind a public URL, empty for URLs outside of the bucket
+     */
+    public Optional<String> objectKeyOf(String publicUrl) {
+        String prefix = publicBaseUrl() + "/";
+        if (publicUrl == null || !publicUrl.startsWith(prefix) || publicUrl.length() == prefix.length()) {
+            return Optional.empty();
         }
+        return Optional.of(publicUrl.substring(prefix.length()));
+    }
 
-        Log.infof("Generated presigned URL for object: %s", objectKey);
-        Log.infof("Upload URL: %s", uploadUrl);
-        Log.infof("Public URL: %s", publicUrl);
+    @Timed(value = "s3.requests", extraTags = {"operation", "get"})
+    public byte[] getObject(String objectKey) {
+        return s3Client.getObjectAsBytes(request -> request.bucket(bucketName).key(objectKey)).asByteArray();
+    }
 
-        presigner.close();
+    /**
+     * Store an immutable object (derived images are never rewritten under the same key)
+     */
+    @Timed(value = "s3.requests", extraTags = {"operation", "put"})
+    public void putObject(String objectKey, byte[] content, String contentType) {
+        s3Client.putObject(request -> request
+                        .bucket(bucketName)
+                        .key(objectKey)
+                        .contentType(contentType)
+                        .cacheControl("public, max-age=31536000, immutable"),
+                RequestBody.fromBytes(content));
+    }
 
-        return new PresignedUrlResponse(uploadUrl, objectKey, publicUrl);
+    private String publicBaseUrl() {
+        if (endpointOverride.isPresent()) {
+            // MinIO/Local S3 - use endpoint override with path-style
+            return String.format("%s/%s", endpointOverride.get(), bucketName);
+        }
+        // AWS S3 - use standard S3 URL
+        return String.format("https://%s.s3.%s.amazonaws.com", bucketName, region);
     }
 
-    private S3Presigner createPresigner() {
+    S3Presigner createPresigner() {
         S3Presigner.Builder builder = S3Presigner.builder()
                 .region(Region.of(region));
 
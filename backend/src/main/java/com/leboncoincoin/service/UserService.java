@@ -1,14 +1,22 @@
 package com.leboncoincoin.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.leboncoincoin.entity.User;
+import com.leboncoincoin.event.UserUpsertedEvent;
 import com.leboncoincoin.repository.UserRepository;
 import io.quarkus.logging.Log;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
 import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.time.Duration;
 import java.util.Optional;
 
 @ApplicationScoped
@@ -23,51 +31,52 @@ public class UserService {
     @ConfigProperty(name = "app.email.welcome-enabled")
     Optional<Boolean> welcomeEmailEnabled;
 
-    @Transactional
-    public User createOrUpdateUser(String id, String email, String name) {
-        Log.infof("Creating or updating user: id=%s, email=%s", id, email);
-        
-        Optional<User> existingUser = userRepository.findByIdOptional(id);
-        if (existingUser.isPresent()) {
-            User user = existingUser.get();
-            user.email = email;
-            user.name = name;
-            userRepository.persist(user);
-            return user;
-        }
-        
-        // New user - create and send welcome email
-        User newUser = new User(id, email, name);
-        userRepository.persist(newUser);
-        
-        // Send welcome email asynchronously (don't block user creation if email fails)
-        sendWelcomeEmailAsync(newUser);
-        
-        return newUser;
+    @ConfigProperty(name = "app.users.verified-cache.max-size", defaultValue = "10000")
+    long verifiedCacheMaxSize;
+
+    @ConfigProperty(name = "app.users.verified-cache.ttl", defaultValue = "PT10M")
+    Duration verifiedCacheTtl;
+
+    @Inject
+    Event<UserUpsertedEvent> userUpserted;
+
+    private Cache<String, Fingerprint> verifiedUsers;
+
+    @PostConstruct
+    void init() {
+        verifiedUsers = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfterWrite(verifiedCacheTtl)
+                .build();
     }
 
     /**
-     * Send welcome email asynchronously to avoid blocking user creation
+     * Remember the verified claims once the upsert is committed
      */
-    private void sendWelcomeEmailAsync(User user) {
+    void onUserUpserted(@Observes(during = TransactionPhase.AFTER_SUCCESS) UserUpsertedEvent event) {
+        verifiedUsers.put(event.userId(), new Fingerprint(event.email(), event.name()));
+    }
+
+    /**
+     * Queue the welcome email of a new user in the upsert's transaction,
+     * so it is only sent if the user row is committed
+     */
+    void onUserCreated(@Observes UserUpsertedEvent event) {
+        if (!event.created()) {
+            return;
+        }
         if (!welcomeEmailEnabled.orElse(true)) {
-            Log.debugf("Welcome email disabled, skipping for user: %s", user.email);
+            Log.debugf("Welcome email disabled, skipping for user: %s", event.email());
             return;
         }
 
         // Check if EmailService is available (may not be in test mode)
         if (emailService.isUnsatisfied()) {
-            Log.debugf("EmailService not available, skipping welcome email for user: %s", user.email);
+            Log.debugf("EmailService not available, skipping welcome email for user: %s", event.email());
             return;
         }
 
-        try {
-            Log.infof("Sending welcome email to new user: %s (%s)", user.name, user.email);
-            emailService.get().sendWelcomeEmail(user.email, user.name);
-        } catch (Exception e) {
-            // Log error but don't fail user creation
-            Log.errorf(e, "Failed to send welcome email to user: %s", user.email);
-        }
+        emailService.get().queueWelcomeEmail(event.email(), event.name());
     }
 
     public Optional<User> getUserById(String id) {
@@ -80,8 +89,30 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
 
-    @Transactional
-    public User ensureUserExists(String id, String email, String name) {
-        return createOrUpdateUser(id, email, name);
+    /**
+     * Make sure the user row exists and matches the token claims. Claims verified recently
+     * on this instance skip the database, otherwise a single upsert writes only what changed.
+     */
+    public void ensureUserExists(String id, String email, String name) {
+        Fingerprint fingerprint = new Fingerprint(email, name);
+        if (fingerprint.equals(verifiedUsers.getIfPresent(id))) {
+            return;
+        }
+
+        // Joins the caller's transaction, the event only applies once it commits
+        QuarkusTransaction.joiningExisting().run(() -> {
+            UserRepository.UpsertResult result = userRepository.upsert(id, email, name);
+            if (result != UserRepository.UpsertResult.UNCHANGED) {
+                Log.infof("User %s %s: email=%s", id,
+                        result == UserRepository.UpsertResult.INSERTED ? "created" : "updated", email);
+            }
+            userUpserted.fire(new UserUpsertedEvent(id, email, name, result == UserRepository.UpsertResult.INSERTED));
+        });
+    }
+
+    /**
+     * Claims last written for a user, a null email means the stored one was kept
+     */
+    private record Fingerprint(String email, String name) {
     }
 }
@@ -0,0 +1,14 @@
+-- Inbox query (ConversationRepository): last message per conversation and unread count per viewer
+
+-- Last message of a conversation is the first entry of a backward scan
+CREATE INDEX idx_messages_conversation_sent
+    ON messages (conversation_id, sent_at, id);
+
+-- Unread messages of a conversation, counted without touching the message rows
+CREATE INDEX idx_messages_conversation_unread
+    ON messages (conversation_id, sender_id)
+    WHERE is_read = FALSE;
+
+-- Superseded by the two indexes above
+DROP INDEX IF EXISTS idx_messages_conversation;
+DROP INDEX IF EXISTS idx_messages_unread;
@@ -0,0 +1,42 @@
+-- Denormalized inbox state on conversations, maintained by ConversationRepository on
+-- every message write and repaired by ConversationSummaryRepairJob.
+-- *_unread_count counts unread messages not sent by that participant.
+ALTER TABLE conversations
+    ADD COLUMN last_message_id VARCHAR(36),
+    ADD COLUMN last_message_sender_id VARCHAR(255),
+    ADD COLUMN last_message_preview VARCHAR(200),
+    ADD COLUMN last_message_at TIMESTAMP,
+    ADD COLUMN buyer_unread_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN seller_unread_count INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill from the existing messages
+UPDATE conversations c
+SET last_message_id = lm.id,
+    last_message_sender_id = lm.sender_id,
+    last_message_preview = LEFT(lm.content, 200),
+    last_message_at = lm.sent_at,
+    buyer_unread_count = (
+        SELECT COUNT(*) FROM messages m
+        WHERE m.conversation_id = c.id AND m.is_read = FALSE AND m.sender_id <> c.buyer_id
+    ),
+    seller_unread_count = (
+        SELECT COUNT(*) FROM messages m
+        WHERE m.conversation_id = c.id AND m.is_read = FALSE AND m.sender_id <> c.seller_id
+    )
+FROM conversations c2
+LEFT JOIN LATERAL (
+    SELECT id, sender_id, content, sent_at
+    FROM messages
+    WHERE conversation_id = c2.id
+    ORDER BY sent_at DESC, id DESC
+    LIMIT 1
+) lm ON TRUE
+WHERE c2.id = c.id;
+
+-- Inbox scans per participant, most recently active first
+CREATE INDEX idx_conversations_buyer_updated ON conversations (buyer_id, updated_at DESC, id DESC);
+CREATE INDEX idx_conversations_seller_updated ON conversations (seller_id, updated_at DESC, id DESC);
+
+-- Superseded by the two indexes above
+DROP INDEX IF EXISTS idx_conversations_buyer;
+DROP INDEX IF EXISTS idx_conversations_seller;
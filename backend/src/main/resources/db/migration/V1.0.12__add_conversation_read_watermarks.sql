@@ -0,0 +1,49 @@
+-- Per-participant read watermarks: every message up to (last_read_at, last_read_message_id)
+-- has been read by that participant. Replaces the per-message is_read flag, which is no
+-- longer written, so marking read is a single row update on conversations.
+ALTER TABLE conversations
+    ADD COLUMN buyer_last_read_at TIMESTAMP,
+    ADD COLUMN buyer_last_read_message_id VARCHAR(36),
+    ADD COLUMN seller_last_read_at TIMESTAMP,
+    ADD COLUMN seller_last_read_message_id VARCHAR(36);
+
+-- Backfill from the newest message each participant received and read
+UPDATE conversations c
+SET buyer_last_read_at = br.sent_at,
+    buyer_last_read_message_id = br.id,
+    seller_last_read_at = sr.sent_at,
+    seller_last_read_message_id = sr.id
+FROM conversations c2
+LEFT JOIN LATERAL (
+    SELECT id, sent_at
+    FROM messages
+    WHERE conversation_id = c2.id AND sender_id <> c2.buyer_id AND is_read = TRUE
+    ORDER BY sent_at DESC, id DESC
+    LIMIT 1
+) br ON TRUE
+LEFT JOIN LATERAL (
+    SELECT id, sent_at
+    FROM messages
+    WHERE conversation_id = c2.id AND sender_id <> c2.seller_id AND is_read = TRUE
+    ORDER BY sent_at DESC, id DESC
+    LIMIT 1
+) sr ON TRUE
+WHERE c.id = c2.id;
+
+-- Unread counters now count the messages after the watermark
+UPDATE conversations c
+SET buyer_unread_count = (
+        SELECT COUNT(*) FROM messages m
+        WHERE m.conversation_id = c.id AND m.sender_id <> c.buyer_id
+          AND (c.buyer_last_read_at IS NULL
+               OR (m.sent_at, m.id) > (c.buyer_last_read_at, c.buyer_last_read_message_id))
+    ),
+    seller_unread_count = (
+        SELECT COUNT(*) FROM messages m
+        WHERE m.conversation_id = c.id AND m.sender_id <> c.seller_id
+          AND (c.seller_last_read_at IS NULL
+               OR (m.sent_at, m.id) > (c.seller_last_read_at, c.seller_last_read_message_id))
+    );
+
+-- Unread lookups go through the watermark and idx_messages_conversation_sent
+DROP INDEX IF EXISTS idx_messages_conversation_unread;
@@ -0,0 +1,31 @@
+-- Derivative pipeline for listing images (card, detail and zoom JPEGs next to the original).
+-- image_jobs is the persistent queue drained by ImageDerivativeJob, image_variants the result.
+CREATE TABLE image_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    image_url VARCHAR(500) NOT NULL UNIQUE,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Only pending jobs are polled
+CREATE INDEX idx_image_jobs_pending ON image_jobs (next_attempt_at) WHERE status = 'PENDING';
+
+CREATE TABLE image_variants (
+    image_url VARCHAR(500) PRIMARY KEY,
+    card_url VARCHAR(500) NOT NULL,
+    detail_url VARCHAR(500) NOT NULL,
+    zoom_url VARCHAR(500) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Queue the images of existing listings, images outside of the bucket fail on their first attempt
+INSERT INTO image_jobs (id, image_url, status)
+SELECT gen_random_uuid()::text, images.image_url, 'PENDING'
+FROM (SELECT DISTINCT li.image_url
+      FROM listing_images li
+      JOIN listings l ON l.id = li.listing_id AND l.deleted_at IS NULL) images
+ON CONFLICT (image_url) DO NOTHING;
@@ -0,0 +1,11 @@
+-- High-water mark of the unread-message digest per user: messages sent up to notified_until
+-- were included in a digest already (or predate the first one) and are never notified again.
+CREATE TABLE unread_digests (
+    user_id VARCHAR(255) PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    notified_until TIMESTAMP NOT NULL,
+    sent_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Existing users start from now, the first digests only cover new messages
+INSERT INTO unread_digests (user_id, notified_until)
+SELECT id, CURRENT_TIMESTAMP FROM users;
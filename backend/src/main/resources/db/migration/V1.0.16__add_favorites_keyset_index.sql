@@ -0,0 +1,6 @@
+-- Favorites page (FavoriteRepository): keyset on (created_at, id) per user, most recent first
+CREATE INDEX idx_favorites_user_created_id
+    ON favorites (user_id, created_at DESC, id DESC);
+
+-- Superseded by the index above, which has user_id as its leading column
+DROP INDEX IF EXISTS idx_favorites_user_id;
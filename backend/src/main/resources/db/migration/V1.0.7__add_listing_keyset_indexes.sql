@@ -0,0 +1,7 @@
+-- Composite indexes backing keyset pagination on (created_at, id)
+-- Partial on deleted_at IS NULL since only active listings are paginated
+CREATE INDEX idx_listings_active_created_id ON listings (created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX idx_listings_user_active_created_id ON listings (user_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
@@ -0,0 +1,20 @@
+-- Full-text search on listings (French configuration), accent-insensitive: "velo" matches "vélo".
+-- Title is weighted above description for ts_rank ordering.
+-- A STORED generated column is computed for every existing row when added,
+-- so this also backfills the current catalog.
+CREATE EXTENSION IF NOT EXISTS unaccent;
+
+-- unaccent() is only STABLE (it depends on the dictionary search path),
+-- pinning the dictionary makes it safe to use in indexes and generated columns
+CREATE OR REPLACE FUNCTION immutable_unaccent(text) RETURNS text AS
+$$ SELECT public.unaccent('public.unaccent'::regdictionary, $1) $$
+LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+ALTER TABLE listings ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('french', immutable_unaccent(coalesce(title, ''))), 'A') ||
+        setweight(to_tsvector('french', immutable_unaccent(coalesce(description, ''))), 'B')
+    ) STORED;
+
+-- GIN index serving search_vector @@ tsquery
+CREATE INDEX idx_listings_search_vector ON listings USING GIN (search_vector);
@@ -0,0 +1,14 @@
+-- Accent-insensitive, typo-tolerant matching for location and search filters
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Normalized form used for matching: no accents (immutable_unaccent, V1.0.8), lower case,
+-- hyphens and apostrophes as spaces ("Saint-Étienne" -> "saint etienne")
+CREATE OR REPLACE FUNCTION search_normalize(text) RETURNS text AS
+$$ SELECT lower(regexp_replace(immutable_unaccent($1), '[-'']+', ' ', 'g')) $$
+LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+-- Trigram indexes serving LIKE '%x%' and the <% similarity operator
+CREATE INDEX idx_listings_location_trgm ON listings USING GIN (search_normalize(location) gin_trgm_ops)
+    WHERE deleted_at IS NULL;
+CREATE INDEX idx_listings_title_trgm ON listings USING GIN (search_normalize(title) gin_trgm_ops)
+    WHERE deleted_at IS NULL;
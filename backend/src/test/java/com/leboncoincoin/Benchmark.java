@@ -0,0 +1,53 @@
+package com.leboncoincoin;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Micro-benchmark harness shared by the tests run with -Dbenchmark=true.
+ * Warms the operation up, then reports the mean time and allocation per call on the calling thread.
+ */
+public final class Benchmark {
+
+    private static volatile int sink;
+
+    private Benchmark() {
+    }
+
+    public record Result(String name, double micros, long bytes) {
+
+        public double perSecond() {
+            return 1e6 / micros;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.2f us/op (%.0f ops/s), %d B/op", name, micros, perSecond(), bytes);
+        }
+    }
+
+    /**
+     * Run the operation warmup times, then measure iterations calls and print the result.
+     * The returned values are consumed so the JIT cannot drop the calls.
+     */
+    public static Result run(String name, int warmup, int iterations, Supplier<?> operation) {
+        int hash = 0;
+        for (int i = 0; i < warmup; i++) {
+            hash += System.identityHashCode(operation.get());
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            hash += System.identityHashCode(operation.get());
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = (threads.getCurrentThreadAllocatedBytes() - allocated) / iterations;
+        sink = hash;
+
+        Result result = new Result(name, elapsed / 1e3 / iterations, bytes);
+        System.out.println(result);
+        return result;
+    }
+}
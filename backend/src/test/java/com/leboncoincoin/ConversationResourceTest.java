@@ -184,8 +184,10 @@ class ConversationResourceTest {
                       equalTo(sellerListingId))
                 .body("find { it.id == '" + conversationId + "' }.unreadCount", 
                       greaterThanOrEqualTo(0))
-                .body("find { it.id == '" + conversationId + "' }.lastMessage", 
-                      notNullValue());
+                .body("find { it.id == '" + conversationId + "' }.lastMessage.id", 
+                      equalTo(secondMessageId))
+                .body("find { it.id == '" + conversationId + "' }.listing.title", 
+                      equalTo("iPhone 13 Pro à vendre"));
 
         System.out.println("✅ Retrieved all conversations");
     }
@@ -227,7 +229,7 @@ class ConversationResourceTest {
     }
 
     @Test
-    @Order(9)
+    @Order(10)
     @DisplayName("Should mark first message as read")
     void testMarkMessageAsRead() {
         Assertions.assertNotNull(firstMessageId, "First message should exist");
@@ -246,7 +248,7 @@ class ConversationResourceTest {
     }
 
     @Test
-    @Order(10)
+    @Order(11)
     @DisplayName("Should verify message is marked as read")
     void testVerifyMessageIsRead() {
         Assertions.assertNotNull(conversationId, "Conversation should exist");
@@ -266,7 +268,7 @@ class ConversationResourceTest {
     }
 
     @Test
-    @Order(11)
+    @Order(12)
     @DisplayName("Should return 404 for non-existent conversation")
     void testGetNonExistentConversation() {
         given()
@@ -279,7 +281,7 @@ class ConversationResourceTest {
     }
 
     @Test
-    @Order(12)
+    @Order(13)
     @DisplayName("Should return 404 for non-existent message")
     void testMarkNonExistentMessageAsRead() {
         Assertions.assertNotNull(conversationId, "Conversation should exist");
@@ -295,7 +297,7 @@ class ConversationResourceTest {
     }
 
     @Test
-    @Order(13)
+    @Order(14)
     @DisplayName("Should validate empty message content")
     void testSendEmptyMessage() {
         Assertions.assertNotNull(conversationId, "Conversation should exist");
@@ -318,7 +320,7 @@ class ConversationResourceTest {
     }
 
     @Test
-    @Order(14)
+    @Order(15)
     @DisplayName("Should validate message content is not null")
     void testSendNullMessage() {
         Assertions.assertNotNull(conversationId, "Conversation should exist");
@@ -341,7 +343,7 @@ class ConversationResourceTest {
     }
 
     @Test
-    @Order(15)
+    @Order(16)
     @DisplayName("Should validate conversation creation with non-existent listing")
     void testCreateConversationWithNonExistentListing() {
         String requestBody = """
@@ -362,7 +364,7 @@ class ConversationResourceTest {
     }
 
     @Test
-    @Order(16)
+    @Order(17)
     @DisplayName("Cleanup: Delete the test listing")
     void testCleanupListing() {
         Assertions.assertNotNull(sellerListingId, "Listing should exist");
@@ -386,7 +388,7 @@ class ConversationResourceTest {
     }
 
     @Test
-    @Order(17)
+    @Order(18)
     @DisplayName("Should verify conversation was cascade deleted with listing")
     void testVerifyConversationDeleted() {
         Assertions.assertNotNull(conversationId, "Conversation ID should be available");
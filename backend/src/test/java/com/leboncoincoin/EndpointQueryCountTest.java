@@ -0,0 +1,299 @@
+package com.leboncoincoin;
+
+import com.leboncoincoin.entity.Conversation;
+import com.leboncoincoin.entity.ImageVariant;
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.Message;
+import com.leboncoincoin.entity.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static com.leboncoincoin.QueryCount.queries;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+/**
+ * Exact number of SQL statements per endpoint, read from the X-Query-Count header.
+ * Listings have two images each and the first one has resized variants, so the image
+ * and variant lookups run like in production.
+ */
+@QuarkusTest
+class EndpointQueryCountTest {
+
+    private static final String BUYER_ID = "test-user-123";
+
+    private String sellerId;
+    private String listingId;
+    private String otherListingId;
+
+    @BeforeEach
+    void createFixtures() {
+        sellerId = "seller-" + UUID.randomUUID();
+        QuarkusTransaction.requiringNew().run(() -> {
+            if (User.findById(BUYER_ID) == null) {
+                new User(BUYER_ID, "test@leboncoincoin.local", "Test User").persist();
+            }
+            new User(sellerId, sellerId + "@example.com", "Seller").persist();
+            listingId = persistListing("Vélo de course");
+            otherListingId = persistListing("Vélo de ville");
+        });
+    }
+
+    @AfterEach
+    void deleteFixtures() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            List<String> listingIds = List.of(listingId, otherListingId);
+            List<Conversation> conversations = Conversation.list("listingId IN ?1", listingIds);
+            for (Conversation conversation : conversations) {
+                Message.delete("conversation.id", conversation.id);
+                conversation.delete();
+            }
+            Listing.<Listing>list("userId", sellerId).forEach(listing -> {
+                ImageVariant.delete("imageUrl IN ?1", listing.imageUrls);
+                listing.delete();
+            });
+            User.deleteById(sellerId);
+        });
+    }
+
+    @Test
+    @DisplayName("GET /listings/{id}: listing, its images, seller, variants")
+    void getListing() {
+        given()
+            .when()
+                .get("/api/listings/" + listingId)
+            .then()
+                .statusCode(200)
+                .spec(queries(4))
+                .body("imageVariants", hasSize(1));
+    }
+
+    @Test
+    @DisplayName("GET /listings: page, images of the page, sellers, variants")
+    void getListingPage() {
+        given()
+            .queryParam("limit", 2)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200)
+                .spec(queries(4))
+                .body("items", hasSize(2));
+    }
+
+    @Test
+    @DisplayName("GET /listings/user/{id}: same as the feed, filtered by seller")
+    void getSellerListings() {
+        given()
+            .queryParam("limit", 2)
+            .when()
+                .get("/api/listings/user/" + sellerId)
+            .then()
+                .statusCode(200)
+                .spec(queries(4))
+                .body("items", hasSize(2));
+    }
+
+    @Test
+    @DisplayName("GET /listings: same count for a page larger than the image batch")
+    void getLargeListingPage() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (int i = 0; i < 38; i++) {
+                persistListing("Vélo " + i);
+            }
+        });
+
+        given()
+            .queryParam("limit", 40)
+            .when()
+                .get("/api/listings/user/" + sellerId)
+            .then()
+                .statusCode(200)
+                .spec(queries(4))
+                .body("items", hasSize(40))
+                .body("items.imageVariants.flatten()", hasSize(40));
+
+        given()
+            .queryParam("limit", 40)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200)
+                .spec(queries(4))
+                .body("items", hasSize(40));
+    }
+
+    @Test
+    @DisplayName("GET /listings/facets: one aggregate query")
+    void getFacets() {
+        given()
+            .when()
+                .get("/api/listings/facets")
+            .then()
+                .statusCode(200)
+                .spec(queries(1));
+    }
+
+    @Test
+    @DisplayName("POST /listings: user upsert, listing and image inserts, response lookups")
+    void createListing() {
+        given()
+            .contentType(ContentType.JSON)
+            .body("""
+                {
+                    "title": "Casque de vélo",
+                    "description": "Casque taille M, jamais tombé",
+                    "price": 25.00,
+                    "category": "Sport & Loisirs",
+                    "location": "Lyon",
+                    "imageUrls": ["https://cdn.example.com/casque-1.jpg", "https://cdn.example.com/casque-2.jpg"]
+                }
+                """)
+            .when()
+                .post("/api/listings")
+            .then()
+                .statusCode(201)
+                .spec(queries(6));
+    }
+
+    @Test
+    @DisplayName("PUT /listings/{id}: listing, image rewrite, response lookups")
+    void updateListing() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Listing listing = Listing.findById(listingId);
+            listing.userId = BUYER_ID;
+        });
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("""
+                {
+                    "title": "Vélo de course carbone",
+                    "description": "Cadre carbone, groupe 105",
+                    "price": 900.00,
+                    "category": "Vélo",
+                    "location": "Paris",
+                    "imageUrls": ["https://cdn.example.com/velo-1.jpg"]
+                }
+                """)
+            .when()
+                .put("/api/listings/" + listingId)
+            .then()
+                .statusCode(200)
+                .spec(queries(7));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            Listing listing = Listing.findById(listingId);
+            listing.userId = sellerId;
+        });
+    }
+
+    @Test
+    @DisplayName("Conversation flow: create, inbox, detail, messages, read")
+    void conversationFlow() {
+        String conversationId = given()
+            .contentType(ContentType.JSON)
+            .body("{\"listingId\": \"" + listingId + "\", \"initialMessage\": \"Toujours disponible ?\"}")
+            .when()
+                .post("/api/conversations")
+            .then()
+                .statusCode(201)
+                .spec(queries(8)) // listing and images, existing check, inserts, summary returning the unread total, seller, variants
+                .extract().path("id");
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"listingId\": \"" + listingId + "\", \"initialMessage\": \"Toujours disponible ?\"}")
+            .when()
+                .post("/api/conversations")
+            .then()
+                .statusCode(200)
+                .spec(queries(3)) // listing, existing conversation, its summary
+                .body("id", equalTo(conversationId))
+                .body("lastMessage.content", equalTo("Toujours disponible ?"))
+                .body("listing.imageVariants", hasSize(1));
+
+        String messageId = given()
+            .contentType(ContentType.JSON)
+            .body("{\"content\": \"Je peux passer samedi.\"}")
+            .when()
+                .post("/api/conversations/" + conversationId + "/messages")
+            .then()
+                .statusCode(201)
+                .spec(queries(4)) // conversation, insert, two summary updates, the second returning the unread total
+                .extract().path("id");
+
+        given()
+            .when()
+                .get("/api/conversations")
+            .then()
+                .statusCode(200)
+                .spec(queries(1)) // summaries with listing, seller and variants
+                .body("find { it.id == '" + conversationId + "' }.listing.imageVariants", hasSize(1));
+
+        given()
+            .when()
+                .get("/api/conversations/" + conversationId)
+            .then()
+                .statusCode(200)
+                .spec(queries(2)); // summary, listing
+
+        given()
+            .when()
+                .get("/api/conversations/" + conversationId + "/messages")
+            .then()
+                .statusCode(200)
+                .spec(queries(2)) // conversation, messages
+                .body("$", hasSize(2));
+
+        given()
+            .queryParam("limit", 1)
+            .when()
+                .get("/api/conversations/" + conversationId + "/messages")
+            .then()
+                .statusCode(200)
+                .spec(queries(2)) // conversation, page
+                .body("items", hasSize(1));
+
+        given()
+            .when()
+                .put("/api/conversations/" + conversationId + "/messages/" + messageId + "/read")
+            .then()
+                .statusCode(200)
+                .spec(queries(3)); // message with its conversation, watermark returning the unread total
+
+        given()
+            .when()
+                .put("/api/conversations/" + conversationId + "/messages/mark-all-read")
+            .then()
+                .statusCode(200)
+                .spec(queries(2)); // conversation, watermark returning the unread total
+
+        given()
+            .when()
+                .get("/api/conversations/non-existent-id")
+            .then()
+                .statusCode(404)
+                .spec(queries(1));
+    }
+
+    private String persistListing(String title) {
+        String slug = UUID.randomUUID().toString();
+        String first = "https://cdn.example.com/" + slug + "-1.jpg";
+        Listing listing = new Listing(title, "Bon état, révisé récemment", new BigDecimal("350.00"),
+                "Vélo", "Paris", List.of(first, "https://cdn.example.com/" + slug + "-2.jpg"), sellerId);
+        listing.persist();
+        new ImageVariant(first, first + "?w=400", first + "?w=1024", first + "?w=2048").persist();
+        return listing.id;
+    }
+}
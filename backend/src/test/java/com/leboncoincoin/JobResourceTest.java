@@ -0,0 +1,102 @@
+package com.leboncoincoin;
+
+import com.leboncoincoin.entity.EmailOutbox;
+import com.leboncoincoin.service.EmailService;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Job endpoints called by the EventBridge schedules on Lambda
+ */
+@QuarkusTest
+class JobResourceTest {
+
+    private static final String TOKEN = "test-job-token";
+
+    @Inject
+    EmailService emailService;
+
+    @Test
+    @DisplayName("Jobs run only with the configured token")
+    void requiresToken() {
+        given()
+            .when()
+                .post("/api/jobs/image-derivatives")
+            .then()
+                .statusCode(403);
+
+        given()
+            .header("X-Job-Token", "wrong-token")
+            .when()
+                .post("/api/jobs/image-derivatives")
+            .then()
+                .statusCode(403);
+    }
+
+    @Test
+    @DisplayName("POST /jobs/image-derivatives drains the image queue")
+    void runsImageDerivatives() {
+        given()
+            .header("X-Job-Token", TOKEN)
+            .when()
+                .post("/api/jobs/image-derivatives")
+            .then()
+                .statusCode(200)
+                .body("processed", equalTo(0));
+    }
+
+    @Test
+    @DisplayName("POST /jobs/email-outbox sends the queued emails")
+    void runsEmailOutbox() {
+        String recipient = "job-" + UUID.randomUUID() + "@example.com";
+        emailService.queue("contact", recipient, "Bonjour", "<p>Bonjour</p>");
+
+        given()
+            .header("X-Job-Token", TOKEN)
+            .when()
+                .post("/api/jobs/email-outbox")
+            .then()
+                .statusCode(200)
+                .body("processed", greaterThanOrEqualTo(1));
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            EmailOutbox email = EmailOutbox.find("recipient", recipient).singleResult();
+            assertEquals(EmailOutbox.Status.SENT, email.status);
+            email.delete();
+        });
+    }
+
+    @Test
+    @DisplayName("POST /jobs/unread-digest queues the due digests")
+    void runsUnreadDigest() {
+        given()
+            .header("X-Job-Token", TOKEN)
+            .when()
+                .post("/api/jobs/unread-digest")
+            .then()
+                .statusCode(200)
+                .body("processed", greaterThanOrEqualTo(0));
+    }
+
+    @Test
+    @DisplayName("POST /jobs/conversation-summary-repair repairs drifted summaries")
+    void runsConversationSummaryRepair() {
+        given()
+            .header("X-Job-Token", TOKEN)
+            .when()
+                .post("/api/jobs/conversation-summary-repair")
+            .then()
+                .statusCode(200)
+                .body("processed", greaterThanOrEqualTo(0));
+    }
+}
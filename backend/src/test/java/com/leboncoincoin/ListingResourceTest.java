@@ -97,7 +97,7 @@ class ListingResourceTest {
     }
 
     @Test
-    @Order(4)
+    @Order(5)
     @DisplayName("Should filter listings by category")
     void testFilterListingsByCategory() {
         given()
@@ -114,7 +114,7 @@ class ListingResourceTest {
     }
 
     @Test
-    @Order(5)
+    @Order(6)
     @DisplayName("Should filter listings by price range")
     void testFilterListingsByPriceRange() {
         given()
@@ -133,7 +133,7 @@ class ListingResourceTest {
     }
 
     @Test
-    @Order(6)
+    @Order(7)
     @DisplayName("Should search listings by keyword")
     void testSearchListings() {
         given()
@@ -150,7 +150,7 @@ class ListingResourceTest {
     }
 
     @Test
-    @Order(7)
+    @Order(8)
     @DisplayName("Should retrieve current user's listings")
     void testGetCurrentUserListings() {
         given()
@@ -167,7 +167,7 @@ class ListingResourceTest {
     }
 
     @Test
-    @Order(8)
+    @Order(9)
     @DisplayName("Should delete the created listing (Happy Path)")
     void testDeleteListing() {
         Assertions.assertNotNull(createdListingId, "Listing should exist before deletion");
@@ -198,7 +198,7 @@ class ListingResourceTest {
     }
 
     @Test
-    @Order(9)
+    @Order(10)
     @DisplayName("Should return 404 for non-existent listing")
     void testGetNonExistentListing() {
         given()
@@ -211,7 +211,7 @@ class ListingResourceTest {
     }
 
     @Test
-    @Order(10)
+    @Order(11)
     @DisplayName("Should validate required fields on creation")
     void testCreateListingValidation() {
         String invalidRequestBody = """
@@ -0,0 +1,40 @@
+package com.leboncoincoin;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+
+/**
+ * Builds the schema from the Flyway migrations instead of the entity mappings, so the
+ * generated search_vector column and the SQL functions the search relies on exist.
+ * Full-text search is on, trigram matching stays off like in the default test profile
+ * unless the Fuzzy variant is used.
+ */
+public class MigratedSchemaProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of(
+                "quarkus.hibernate-orm.database.generation", "none",
+                "quarkus.flyway.migrate-at-start", "true",
+                "quarkus.flyway.clean-at-start", "true",
+                "app.listings.search.full-text-enabled", "true",
+                "app.listings.search.fuzzy-enabled", String.valueOf(fuzzy())
+        );
+    }
+
+    boolean fuzzy() {
+        return false;
+    }
+
+    /**
+     * Same schema with accent-insensitive trigram matching (pg_trgm) on
+     */
+    public static class Fuzzy extends MigratedSchemaProfile {
+
+        @Override
+        boolean fuzzy() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.leboncoincoin;
+
+import com.leboncoincoin.metrics.QueryBudgetFilter;
+import io.restassured.builder.ResponseSpecBuilder;
+import io.restassured.specification.ResponseSpecification;
+
+/**
+ * SQL statements run by a request, from the X-Query-Count header that QueryBudgetFilter
+ * returns in the test profile. Counts are per request, unlike the global Hibernate statistics.
+ */
+final class QueryCount {
+
+    private QueryCount() {
+    }
+
+    /**
+     * Expect exactly this many statements: {@code .then().spec(queries(2))}
+     */
+    static ResponseSpecification queries(int expected) {
+        return new ResponseSpecBuilder()
+                .expectHeader(QueryBudgetFilter.QUERY_COUNT_HEADER, String.valueOf(expected))
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.leboncoincoin.cache;
+
+import com.leboncoincoin.entity.Favorite;
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Badge counters kept up to date by favorite and listing writes
+ */
+@QuarkusTest
+class BadgeCountersTest {
+
+    private static final String USER_ID = "test-user-123";
+
+    @Inject
+    BadgeCounters badgeCounters;
+
+    private String bystanderId;
+    private String listingId;
+
+    @BeforeEach
+    void createFixtures() {
+        bystanderId = "bystander-" + UUID.randomUUID();
+        QuarkusTransaction.requiringNew().run(() -> {
+            if (User.findById(USER_ID) == null) {
+                new User(USER_ID, "test@leboncoincoin.local", "Test User").persist();
+            }
+            new User(bystanderId, bystanderId + "@example.com", "Bystander").persist();
+            Listing listing = new Listing("Lampe de bureau", "Lampe articulée", new BigDecimal("15.00"),
+                    "Mobilier", "Nantes", List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"), USER_ID);
+            listing.persist();
+            listingId = listing.id;
+        });
+    }
+
+    @AfterEach
+    void deleteFixtures() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Favorite.delete("listingId", listingId);
+            Listing.deleteById(listingId);
+            User.deleteById(bystanderId);
+        });
+    }
+
+    @Test
+    @DisplayName("Favoriting drops the cached counters, the next read reloads them")
+    void reloadsOnFavoriteChange() {
+        long favorites = badgeCounters.get(USER_ID).favorites();
+
+        given().contentType(ContentType.JSON).when().post("/api/favorites/" + listingId).then().statusCode(201);
+        long misses = badgeCounters.stats().misses();
+        assertEquals(favorites + 1, badgeCounters.get(USER_ID).favorites());
+        assertEquals(misses + 1, badgeCounters.stats().misses());
+
+        given().contentType(ContentType.JSON).when().delete("/api/favorites/" + listingId).then().statusCode(204);
+        assertEquals(favorites, badgeCounters.get(USER_ID).favorites());
+    }
+
+    @Test
+    @DisplayName("Deleting a listing reloads the counters of its favoriters only")
+    void invalidatesFavoritersOnListingDeletion() {
+        given().contentType(ContentType.JSON).when().post("/api/favorites/" + listingId).then().statusCode(201);
+        long favorites = badgeCounters.get(USER_ID).favorites();
+        badgeCounters.get(bystanderId);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"reason\": \"SOLD\", \"wasSold\": true}")
+            .when()
+                .delete("/api/listings/" + listingId)
+            .then()
+                .statusCode(204);
+
+        given()
+            .when()
+                .get("/api/me/badges")
+            .then()
+                .statusCode(200)
+                .body("favorites", equalTo((int) favorites - 1));
+
+        long hits = badgeCounters.stats().hits();
+        badgeCounters.get(bystanderId);
+        assertEquals(hits + 1, badgeCounters.stats().hits(), "Bystander counters should stay cached");
+    }
+
+    @Test
+    @DisplayName("A deleted listing cannot be favorited, removing its favorite keeps the count")
+    void ignoresDeletedListings() {
+        given().contentType(ContentType.JSON).when().post("/api/favorites/" + listingId).then().statusCode(201);
+        QuarkusTransaction.requiringNew().run(() -> {
+            Listing listing = Listing.findById(listingId);
+            listing.deletedAt = Instant.now();
+        });
+        badgeCounters.invalidateAll();
+        long favorites = badgeCounters.get(USER_ID).favorites();
+
+        given().contentType(ContentType.JSON).when().delete("/api/favorites/" + listingId).then().statusCode(204);
+        given().contentType(ContentType.JSON).when().post("/api/favorites/" + listingId).then().statusCode(404);
+
+        assertEquals(favorites, badgeCounters.get(USER_ID).favorites());
+    }
+}
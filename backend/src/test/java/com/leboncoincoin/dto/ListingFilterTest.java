@@ -0,0 +1,39 @@
+package com.leboncoincoin.dto;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for the normalization of listing filters, shared by the queries and the cache key
+ */
+class ListingFilterTest {
+
+    @Test
+    @DisplayName("Should build equal filters from equivalent requests")
+    void testEquivalentFiltersAreEqual() {
+        ListingFilter raw = new ListingFilter(" Vélo ", "PARIS", new BigDecimal("10.00"), null, "  Vélo Électrique ",
+                ListingSort.DATE);
+        ListingFilter clean = new ListingFilter("vélo", "paris", BigDecimal.TEN, null, "vélo électrique", null);
+
+        assertEquals(clean, raw);
+        assertEquals("vélo électrique", raw.searchTerm());
+        assertEquals(0, raw.minPrice().compareTo(BigDecimal.TEN));
+    }
+
+    @Test
+    @DisplayName("Should drop blank values instead of filtering on them")
+    void testBlankValuesAreDropped() {
+        ListingFilter filter = new ListingFilter("", " ", null, null, "   ", ListingSort.RELEVANCE);
+
+        assertNull(filter.category());
+        assertNull(filter.location());
+        assertFalse(filter.hasFilters());
+        assertFalse(filter.sortByRelevance());
+    }
+}
@@ -0,0 +1,62 @@
+package com.leboncoincoin.image;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ImageResizerTest {
+
+    @Test
+    @DisplayName("Downscales to the width with the aspect ratio, never upscales")
+    void resizesToWidth() {
+        BufferedImage source = new BufferedImage(3000, 2000, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage card = ImageResizer.resize(source, ImageDerivativeService.Size.CARD.width);
+        assertEquals(400, card.getWidth());
+        assertEquals(267, card.getHeight());
+
+        BufferedImage small = new BufferedImage(300, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage zoom = ImageResizer.resize(small, ImageDerivativeService.Size.ZOOM.width);
+        assertEquals(300, zoom.getWidth());
+        assertEquals(100, zoom.getHeight());
+    }
+
+    @Test
+    @DisplayName("Transparent PNGs are flattened on white and round-trip as JPEG")
+    void encodesTransparentPngAsJpeg() throws IOException {
+        BufferedImage png = new BufferedImage(800, 600, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        ImageIO.write(png, "png", content);
+
+        BufferedImage resized = ImageResizer.resize(ImageResizer.decode(content.toByteArray()), 400);
+        BufferedImage jpeg = ImageResizer.decode(ImageResizer.encodeJpeg(resized));
+
+        assertEquals(400, jpeg.getWidth());
+        assertEquals(300, jpeg.getHeight());
+        Color corner = new Color(jpeg.getRGB(0, 0));
+        assertEquals(255, corner.getRed(), 2);
+        assertEquals(255, corner.getGreen(), 2);
+        assertEquals(255, corner.getBlue(), 2);
+    }
+
+    @Test
+    @DisplayName("Rejects content ImageIO cannot decode")
+    void rejectsUnsupportedContent() {
+        assertThrows(IllegalArgumentException.class, () -> ImageResizer.decode(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    @DisplayName("Derivative keys sit next to the original")
+    void stripsExtension() {
+        assertEquals("user-1/abc", ImageDerivativeService.stripExtension("user-1/abc.png"));
+        assertEquals("user.name/abc", ImageDerivativeService.stripExtension("user.name/abc"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.leboncoincoin.job;
+
+import com.leboncoincoin.entity.ImageJob;
+import com.leboncoincoin.repository.ImageJobRepository;
+import com.leboncoincoin.service.S3Service;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Failed image jobs: permanent errors give up at once, the others are retried after the backoff.
+ * There is no S3 in the test profile, so images of the bucket fail like an unreachable S3.
+ */
+@QuarkusTest
+class ImageDerivativeJobTest {
+
+    @Inject
+    ImageDerivativeJob imageDerivativeJob;
+
+    @Inject
+    ImageJobRepository imageJobRepository;
+
+    @Inject
+    S3Service s3Service;
+
+    private final String foreignUrl = "https://images.example.com/" + UUID.randomUUID() + ".jpg";
+    private final String bucketKey = "listings/" + UUID.randomUUID() + ".jpg";
+
+    @AfterEach
+    void deleteJobs() {
+        QuarkusTransaction.requiringNew().run(() ->
+                ImageJob.delete("imageUrl IN ?1", List.of(foreignUrl, s3Service.publicUrlOf(bucketKey))));
+    }
+
+    @Test
+    @DisplayName("Images outside of the bucket fail for good on the first attempt")
+    void failsPermanentErrorsAtOnce() {
+        QuarkusTransaction.requiringNew().run(() -> imageJobRepository.enqueue(List.of(foreignUrl)));
+
+        assertEquals(1, imageDerivativeJob.process());
+
+        ImageJob job = findJob(foreignUrl);
+        assertEquals(ImageJob.Status.FAILED, job.status);
+        assertEquals(1, job.attempts);
+        assertNotNull(job.lastError);
+    }
+
+    @Test
+    @DisplayName("Other errors leave the job pending until the backoff")
+    void retriesTransientErrors() {
+        String imageUrl = s3Service.publicUrlOf(bucketKey);
+        QuarkusTransaction.requiringNew().run(() -> imageJobRepository.enqueue(List.of(imageUrl)));
+
+        assertEquals(1, imageDerivativeJob.process());
+
+        ImageJob job = findJob(imageUrl);
+        assertEquals(ImageJob.Status.PENDING, job.status);
+        assertEquals(1, job.attempts);
+        assertNotNull(job.lastError);
+        assertTrue(job.nextAttemptAt.isAfter(LocalDateTime.now()), "Retry should wait for the backoff");
+        assertEquals(0, imageDerivativeJob.process());
+    }
+
+    private ImageJob findJob(String imageUrl) {
+        return QuarkusTransaction.requiringNew().call(() -> ImageJob.find("imageUrl", imageUrl).singleResult());
+    }
+}
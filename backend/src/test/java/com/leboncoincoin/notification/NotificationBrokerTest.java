@@ -0,0 +1,57 @@
+package com.leboncoincoin.notification;
+
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for the in-process notification fan-out
+ */
+class NotificationBrokerTest {
+
+    private NotificationBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        broker = new NotificationBroker();
+        broker.heartbeat = Duration.ofHours(1);
+    }
+
+    @Test
+    @DisplayName("Should deliver to every stream of the user only")
+    void testDeliverToUserStreams() {
+        AssertSubscriber<UserNotification> phone = broker.subscribe("alice").subscribe()
+                .withSubscriber(AssertSubscriber.create(10));
+        AssertSubscriber<UserNotification> laptop = broker.subscribe("alice").subscribe()
+                .withSubscriber(AssertSubscriber.create(10));
+        AssertSubscriber<UserNotification> other = broker.subscribe("bob").subscribe()
+                .withSubscriber(AssertSubscriber.create(10));
+
+        broker.deliver("alice", UserNotification.unreadCount(3));
+
+        assertEquals(List.of(UserNotification.unreadCount(3)), phone.getItems());
+        assertEquals(List.of(UserNotification.unreadCount(3)), laptop.getItems());
+        assertEquals(List.of(), other.getItems());
+        List.of(phone, laptop, other).forEach(AssertSubscriber::cancel);
+    }
+
+    @Test
+    @DisplayName("Should forget a stream once the client disconnects")
+    void testUnsubscribeOnCancel() {
+        AssertSubscriber<UserNotification> stream = broker.subscribe("alice").subscribe()
+                .withSubscriber(AssertSubscriber.create(10));
+        assertEquals(1, broker.subscriberCount());
+
+        stream.cancel();
+        broker.deliver("alice", UserNotification.unreadCount(1));
+
+        assertEquals(0, broker.subscriberCount());
+        assertEquals(List.of(), stream.getItems());
+    }
+}
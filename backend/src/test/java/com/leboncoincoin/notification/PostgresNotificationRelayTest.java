@@ -0,0 +1,70 @@
+package com.leboncoincoin.notification;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * LISTEN/NOTIFY round trip with a single-connection pool, like the 2-connection pool on Lambda:
+ * the listener must not hold the pooled connection requests and publishing need.
+ */
+@QuarkusTest
+@TestProfile(PostgresNotificationRelayTest.SingleConnectionProfile.class)
+class PostgresNotificationRelayTest {
+
+    @Inject
+    NotificationBroker broker;
+
+    @Inject
+    Instance<NotificationRelay> relays;
+
+    @Test
+    @DisplayName("Published notifications come back through the listener, requests still get a connection")
+    void relaysThroughPostgres() throws InterruptedException {
+        NotificationRelay relay = relays.get();
+        assertInstanceOf(PostgresNotificationRelay.class, relay);
+
+        String userId = "user-" + UUID.randomUUID();
+        AssertSubscriber<UserNotification> stream = broker.subscribe(userId).subscribe()
+                .withSubscriber(AssertSubscriber.create(10));
+
+        // The listener connects in the background, publish until it is listening
+        for (int attempt = 0; attempt < 50 && stream.getItems().isEmpty(); attempt++) {
+            relay.publish(userId, UserNotification.unreadCount(2));
+            Thread.sleep(200);
+        }
+        stream.cancel();
+        assertFalse(stream.getItems().isEmpty(), "Notification was not relayed");
+        assertEquals(UserNotification.unreadCount(2), stream.getItems().get(0));
+
+        given()
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200);
+    }
+
+    public static class SingleConnectionProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "app.notifications.relay", "postgres",
+                    "quarkus.datasource.jdbc.max-size", "1"
+            );
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.leboncoincoin.repository;
+
+import com.leboncoincoin.entity.Conversation;
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.Message;
+import com.leboncoincoin.entity.User;
+import com.leboncoincoin.notification.NotificationBroker;
+import com.leboncoincoin.notification.UserNotification;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Summary writes return the unread total of the user they change, across conversations.
+ * The test user writes to a fresh seller in two conversations.
+ */
+@QuarkusTest
+class ConversationRepositoryTest {
+
+    private static final String BUYER_ID = "test-user-123";
+
+    @Inject
+    ConversationRepository conversationRepository;
+
+    @Inject
+    NotificationBroker broker;
+
+    private String sellerId;
+    private final List<String> listingIds = new ArrayList<>();
+    private final List<String> conversationIds = new ArrayList<>();
+
+    @BeforeEach
+    void createConversations() {
+        sellerId = "seller-" + UUID.randomUUID();
+        listingIds.clear();
+        conversationIds.clear();
+        QuarkusTransaction.requiringNew().run(() -> {
+            if (User.findById(BUYER_ID) == null) {
+                new User(BUYER_ID, "test@leboncoincoin.local", "Test User").persist();
+            }
+            new User(sellerId, sellerId + "@example.com", "Seller").persist();
+            for (String title : List.of("Table basse", "Bibliothèque")) {
+                Listing listing = new Listing(title, "Bon état", new BigDecimal("40.00"), "Mobilier", "Lille",
+                        List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"), sellerId);
+                listing.persist();
+                listingIds.add(listing.id);
+            }
+        });
+
+        for (String listingId : listingIds) {
+            conversationIds.add(given()
+                .contentType(ContentType.JSON)
+                .body("{\"listingId\": \"" + listingId + "\", \"initialMessage\": \"Disponible ?\"}")
+                .when()
+                    .post("/api/conversations")
+                .then()
+                    .statusCode(201)
+                    .extract().path("id"));
+        }
+    }
+
+    @AfterEach
+    void deleteConversations() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (String conversationId : conversationIds) {
+                Message.delete("conversation.id", conversationId);
+                Conversation.deleteById(conversationId);
+            }
+            Listing.delete("id IN ?1", listingIds);
+            User.deleteById(sellerId);
+        });
+    }
+
+    @Test
+    @DisplayName("Sending a message pushes the recipient's total over all conversations")
+    void recordMessageReturnsRecipientTotal() throws InterruptedException {
+        AssertSubscriber<UserNotification> stream = broker.subscribe(sellerId).subscribe()
+                .withSubscriber(AssertSubscriber.create(10));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"content\": \"Je peux passer demain\"}")
+            .when()
+                .post("/api/conversations/" + conversationIds.get(0) + "/messages")
+            .then()
+                .statusCode(201);
+
+        for (int attempt = 0; attempt < 50 && unreadCounts(stream).isEmpty(); attempt++) {
+            Thread.sleep(100);
+        }
+        stream.cancel();
+        assertEquals(List.of(3L), unreadCounts(stream));
+        assertEquals(3L, unreadOfSeller());
+    }
+
+    @Test
+    @DisplayName("Marking messages read returns the reader's remaining total, empty when nothing changed")
+    void markReadReturnsReaderTotal() {
+        Optional<Long> afterReadUpTo = QuarkusTransaction.requiringNew().call(() -> {
+            Conversation conversation = Conversation.findById(conversationIds.get(0));
+            Message last = Message.findByConversationId(conversation.id).get(0);
+            return conversationRepository.markReadUpTo(conversation, last);
+        });
+        assertEquals(Optional.of(1L), afterReadUpTo);
+        assertEquals(1L, unreadOfSeller());
+
+        assertEquals(Optional.of(0L), QuarkusTransaction.requiringNew().call(() ->
+                conversationRepository.markAllRead(conversationIds.get(1), sellerId)));
+        assertEquals(Optional.empty(), QuarkusTransaction.requiringNew().call(() ->
+                conversationRepository.markAllRead(conversationIds.get(1), sellerId)));
+        assertEquals(0L, unreadOfSeller());
+    }
+
+    private long unreadOfSeller() {
+        return QuarkusTransaction.requiringNew().call(() -> conversationRepository.countUnreadByUserId(sellerId));
+    }
+
+    private static List<Long> unreadCounts(AssertSubscriber<UserNotification> stream) {
+        return stream.getItems().stream()
+                .filter(notification -> notification.type() == UserNotification.Type.UNREAD_COUNT)
+                .map(UserNotification::unreadCount)
+                .toList();
+    }
+}
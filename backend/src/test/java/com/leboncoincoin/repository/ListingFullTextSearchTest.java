@@ -0,0 +1,148 @@
+package com.leboncoincoin.repository;
+
+import com.leboncoincoin.MigratedSchemaProfile;
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.response.ValidatableResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Full-text search against the search_vector column of the migrated schema.
+ * Every listing carries a random marker word so the sample data never matches.
+ */
+@QuarkusTest
+@TestProfile(MigratedSchemaProfile.class)
+class ListingFullTextSearchTest {
+
+    private String sellerId;
+    private String marker;
+    private String bikeId;
+    private String helmetId;
+
+    @BeforeEach
+    void createListings() {
+        sellerId = "seller-" + UUID.randomUUID();
+        marker = "zq" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+        Instant now = Instant.now();
+        QuarkusTransaction.requiringNew().run(() -> {
+            new User(sellerId, sellerId + "@example.com", "Seller").persist();
+            bikeId = persistListing("Vélo électrique " + marker, "Batterie neuve", now.minusSeconds(60));
+            helmetId = persistListing("Casque " + marker, "Idéal pour le vélo électrique", now);
+        });
+    }
+
+    @AfterEach
+    void deleteListings() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Listing.<Listing>list("userId", sellerId).forEach(Listing::delete);
+            User.deleteById(sellerId);
+        });
+    }
+
+    @Test
+    @DisplayName("Every word of the search is matched as a prefix")
+    void matchesPrefixes() {
+        assertEquals("vélo:* & élect:*", ListingRepository.toPrefixTsQuery("vélo élect"));
+
+        searchIds(marker + " élect").body("id", contains(helmetId, bikeId));
+        searchIds(marker + " velo elect").body("id", contains(helmetId, bikeId));
+        searchIds(marker + " casq").body("id", contains(helmetId));
+        searchIds(marker + " trottinette").body("id", empty());
+    }
+
+    @Test
+    @DisplayName("Operators typed by the user are dropped instead of failing the query")
+    void dropsOperators() {
+        assertEquals("vélo:* & élect:*", ListingRepository.toPrefixTsQuery("vélo & !élect | :*"));
+        assertEquals("", ListingRepository.toPrefixTsQuery("&|!"));
+
+        searchIds(marker + " & !casque | (").body("id", contains(helmetId));
+        searchIds("&|!").body("id", empty());
+    }
+
+    @Test
+    @DisplayName("Relevance sort ranks title matches above description matches")
+    void sortsByRelevance() {
+        given()
+            .queryParam("search", marker + " vélo")
+            .queryParam("sort", "relevance")
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200)
+                .body("id", contains(bikeId, helmetId));
+    }
+
+    @Test
+    @DisplayName("Relevance sort is rejected with cursor pagination")
+    void rejectsRelevanceWithCursor() {
+        String cursor = given()
+            .queryParam("search", marker + " vélo")
+            .queryParam("limit", 1)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200)
+                .body("items", hasSize(1))
+                .body("nextCursor", notNullValue())
+                .extract().path("nextCursor");
+
+        given()
+            .queryParam("search", marker + " vélo")
+            .queryParam("sort", "relevance")
+            .queryParam("cursor", cursor)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(400)
+                .body("message", equalTo("Relevance sort is not available with cursor pagination"));
+
+        given()
+            .queryParam("search", marker + " vélo")
+            .queryParam("sort", "relevance")
+            .queryParam("limit", 1)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(400)
+                .body("message", containsString("Relevance sort"));
+    }
+
+    private ValidatableResponse searchIds(String search) {
+        return given()
+            .queryParam("search", search)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200);
+    }
+
+    private String persistListing(String title, String description, Instant createdAt) {
+        Listing listing = new Listing(title, description, new BigDecimal("120.00"), "Vélo", "Lyon",
+                List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"), sellerId);
+        listing.createdAt = createdAt;
+        listing.updatedAt = createdAt;
+        listing.persist();
+        return listing.id;
+    }
+}
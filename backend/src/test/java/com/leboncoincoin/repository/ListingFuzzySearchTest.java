@@ -0,0 +1,95 @@
+package com.leboncoincoin.repository;
+
+import com.leboncoincoin.MigratedSchemaProfile;
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.response.ValidatableResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Accent-insensitive and typo-tolerant matching (unaccent, pg_trgm <% operator) on the migrated schema.
+ * Listings are found through their seller or a random marker word, the sample data has its own.
+ */
+@QuarkusTest
+@TestProfile(MigratedSchemaProfile.Fuzzy.class)
+class ListingFuzzySearchTest {
+
+    private String sellerId;
+    private String marker;
+    private String scooterId;
+
+    @BeforeEach
+    void createListings() {
+        sellerId = "seller-" + UUID.randomUUID();
+        marker = "zq" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+        QuarkusTransaction.requiringNew().run(() -> {
+            new User(sellerId, sellerId + "@example.com", "Seller").persist();
+            scooterId = persistListing("Trottinette électrique " + marker, "Saint-Étienne");
+        });
+    }
+
+    @AfterEach
+    void deleteListings() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Listing.delete("userId", sellerId);
+            User.deleteById(sellerId);
+        });
+    }
+
+    @Test
+    @DisplayName("Location matches without accents, hyphens or case")
+    void matchesNormalizedLocation() {
+        search(marker, "saint etienne").body("id", contains(scooterId));
+        search(marker, "SAINT-ETIENNE").body("id", contains(scooterId));
+        search(marker, "Étienne").body("id", contains(scooterId));
+        search(marker, "Lyon").body("id", not(hasItem(scooterId)));
+    }
+
+    @Test
+    @DisplayName("Location and title tolerate a typo")
+    void toleratesTypos() {
+        search(marker, "Saint-Etiene").body("id", contains(scooterId));
+        search("trotinette electrique", null).body("id", hasItem(scooterId));
+        search("bicyclette", null).body("id", not(hasItem(scooterId)));
+    }
+
+    @Test
+    @DisplayName("Full-text search ignores accents")
+    void matchesUnaccentedTerms() {
+        search(marker + " electrique", null).body("id", contains(scooterId));
+        search(marker + " ÉLECTR", null).body("id", contains(scooterId));
+    }
+
+    private ValidatableResponse search(String search, String location) {
+        return given()
+            .queryParam("search", search)
+            .queryParam("location", location)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200);
+    }
+
+    private String persistListing(String title, String location) {
+        Listing listing = new Listing(title, "Autonomie 25 km, chargeur fourni", new BigDecimal("150.00"),
+                "Sport & Loisirs", location, List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"),
+                sellerId);
+        listing.persist();
+        return listing.id;
+    }
+}
@@ -0,0 +1,177 @@
+package com.leboncoincoin.repository;
+
+import com.leboncoincoin.entity.Conversation;
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.Message;
+import com.leboncoincoin.entity.UnreadDigest;
+import com.leboncoincoin.entity.User;
+import com.leboncoincoin.repository.UnreadDigestRepository.UnreadConversation;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Native queries behind UnreadDigestJob: due unread messages and the per-user high-water mark.
+ * The test user writes to a fresh seller, whose unread messages are the only ones looked at.
+ */
+@QuarkusTest
+class UnreadDigestRepositoryTest {
+
+    private static final String BUYER_ID = "test-user-123";
+
+    @Inject
+    UnreadDigestRepository unreadDigestRepository;
+
+    private String sellerId;
+    private String listingId;
+
+    @BeforeEach
+    void createConversation() {
+        sellerId = "seller-" + UUID.randomUUID();
+        QuarkusTransaction.requiringNew().run(() -> {
+            if (User.findById(BUYER_ID) == null) {
+                new User(BUYER_ID, "test@leboncoincoin.local", "Test User").persist();
+            }
+            new User(sellerId, sellerId + "@example.com", "Seller").persist();
+            Listing listing = new Listing("Guitare folk", "Cordes neuves", new BigDecimal("120.00"),
+                    "Musique", "Rennes", List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"), sellerId);
+            listing.persist();
+            listingId = listing.id;
+        });
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"listingId\": \"" + listingId + "\", \"initialMessage\": \"Toujours disponible ?\"}")
+            .when()
+                .post("/api/conversations")
+            .then()
+                .statusCode(201);
+    }
+
+    @AfterEach
+    void deleteConversation() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (Conversation conversation : Conversation.findByListingId(listingId)) {
+                Message.delete("conversation.id", conversation.id);
+                conversation.delete();
+            }
+            UnreadDigest.deleteById(sellerId);
+            Listing.deleteById(listingId);
+            User.deleteById(sellerId);
+        });
+    }
+
+    @Test
+    @DisplayName("findDue returns the recipient's unread messages once older than the delay")
+    void findsDueMessages() {
+        List<UnreadConversation> due = findDueForSeller(Duration.ZERO);
+        assertEquals(1, due.size());
+        UnreadConversation conversation = due.get(0);
+        assertEquals(sellerId + "@example.com", conversation.email());
+        assertEquals("Seller", conversation.userName());
+        assertEquals("Guitare folk", conversation.listingTitle());
+        assertEquals(1, conversation.unreadCount());
+
+        assertTrue(findDueForSeller(Duration.ofHours(1)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("advance moves the high-water mark forward only, notified messages are no longer due")
+    void advancesHighWaterMark() {
+        UnreadConversation conversation = findDueForSeller(Duration.ZERO).get(0);
+
+        assertTrue(QuarkusTransaction.requiringNew().call(() ->
+                unreadDigestRepository.advance(sellerId, conversation.lastSentAt())));
+        assertFalse(QuarkusTransaction.requiringNew().call(() ->
+                unreadDigestRepository.advance(sellerId, conversation.lastSentAt())));
+        assertFalse(QuarkusTransaction.requiringNew().call(() ->
+                unreadDigestRepository.advance(sellerId, conversation.lastSentAt().minusMinutes(1))));
+
+        assertTrue(findDueForSeller(Duration.ZERO).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Messages read by the recipient are not due")
+    void skipsReadMessages() {
+        QuarkusTransaction.requiringNew().run(() -> Conversation.getEntityManager().createNativeQuery("""
+                UPDATE conversations
+                SET seller_unread_count = 0, seller_last_read_at = last_message_at,
+                    seller_last_read_message_id = last_message_id
+                WHERE listing_id = :listingId
+                """)
+                .setParameter("listingId", listingId)
+                .executeUpdate());
+
+        assertTrue(findDueForSeller(Duration.ZERO).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Recipients without a user row do not take the limit's slots")
+    void skipsOrphanRecipients() {
+        String orphanId = "orphan-" + UUID.randomUUID();
+        String orphanListingId = QuarkusTransaction.requiringNew().call(() -> {
+            Listing listing = new Listing("Tabouret", "Bois massif", new BigDecimal("20.00"),
+                    "Mobilier", "Rennes", List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"), orphanId);
+            listing.persist();
+            return listing.id;
+        });
+        given()
+            .contentType(ContentType.JSON)
+            .body("{\"listingId\": \"" + orphanListingId + "\", \"initialMessage\": \"Encore là ?\"}")
+            .when()
+                .post("/api/conversations")
+            .then()
+                .statusCode(201);
+
+        try {
+            // The orphan's message is the oldest due one, the seller's comes right after
+            backdateMessages(orphanListingId, "2000-01-01 00:00:00");
+            backdateMessages(listingId, "2000-01-02 00:00:00");
+
+            List<UnreadConversation> due = QuarkusTransaction.requiringNew()
+                    .call(() -> unreadDigestRepository.findDue(Duration.ZERO, 1));
+            assertEquals(1, due.size());
+            assertEquals(sellerId, due.get(0).userId());
+        } finally {
+            QuarkusTransaction.requiringNew().run(() -> {
+                for (Conversation conversation : Conversation.findByListingId(orphanListingId)) {
+                    Message.delete("conversation.id", conversation.id);
+                    conversation.delete();
+                }
+                Listing.deleteById(orphanListingId);
+            });
+        }
+    }
+
+    private void backdateMessages(String listingId, String sentAt) {
+        QuarkusTransaction.requiringNew().run(() -> Conversation.getEntityManager().createNativeQuery("""
+                UPDATE messages SET sent_at = CAST(:sentAt AS TIMESTAMP)
+                WHERE conversation_id IN (SELECT id FROM conversations WHERE listing_id = :listingId)
+                """)
+                .setParameter("sentAt", sentAt)
+                .setParameter("listingId", listingId)
+                .executeUpdate());
+    }
+
+    private List<UnreadConversation> findDueForSeller(Duration delay) {
+        return QuarkusTransaction.requiringNew().call(() -> unreadDigestRepository.findDue(delay, 10_000))
+                .stream()
+                .filter(row -> row.userId().equals(sellerId))
+                .toList();
+    }
+}
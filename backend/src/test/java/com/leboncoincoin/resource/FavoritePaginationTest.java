@@ -0,0 +1,126 @@
+package com.leboncoincoin.resource;
+
+import com.leboncoincoin.entity.Favorite;
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Keyset pages of GET /favorites/listings. The test user starts without favorites
+ * and favorites three listings of a fresh seller, one after the other.
+ */
+@QuarkusTest
+class FavoritePaginationTest {
+
+    private static final String USER_ID = "test-user-123";
+
+    private String sellerId;
+
+    /**
+     * Favorited listing ids, most recently favorited first
+     */
+    private final List<String> listingIds = new ArrayList<>();
+
+    @BeforeEach
+    void createFavorites() {
+        sellerId = "seller-" + UUID.randomUUID();
+        listingIds.clear();
+        QuarkusTransaction.requiringNew().run(() -> {
+            if (User.findById(USER_ID) == null) {
+                new User(USER_ID, "test@leboncoincoin.local", "Test User").persist();
+            }
+            Favorite.delete("userId", USER_ID);
+            new User(sellerId, sellerId + "@example.com", "Seller").persist();
+            for (int i = 0; i < 3; i++) {
+                Listing listing = new Listing("Lampe " + i, "Lampe de chevet", new BigDecimal("12.00"),
+                        "Mobilier", "Bordeaux", List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"),
+                        sellerId);
+                listing.persist();
+                listingIds.add(0, listing.id);
+            }
+        });
+
+        for (int i = listingIds.size() - 1; i >= 0; i--) {
+            given().contentType(ContentType.JSON).when().post("/api/favorites/" + listingIds.get(i)).then().statusCode(201);
+        }
+    }
+
+    @AfterEach
+    void deleteFavorites() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Favorite.delete("listingId IN ?1", listingIds);
+            Listing.delete("id IN ?1", listingIds);
+            User.deleteById(sellerId);
+        });
+    }
+
+    @Test
+    @DisplayName("nextCursor continues after the last favorite of the page, null on the last page")
+    void pagesThroughFavorites() {
+        String nextCursor = given()
+            .queryParam("limit", 2)
+            .when()
+                .get("/api/favorites/listings")
+            .then()
+                .statusCode(200)
+                .body("items.listing.id", contains(listingIds.get(0), listingIds.get(1)))
+                .body("nextCursor", notNullValue())
+                .extract().path("nextCursor");
+
+        given()
+            .queryParam("limit", 2)
+            .queryParam("cursor", nextCursor)
+            .when()
+                .get("/api/favorites/listings")
+            .then()
+                .statusCode(200)
+                .body("items.listing.id", contains(listingIds.get(2)))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    @DisplayName("Favorites of deleted listings are skipped without shortening the pages")
+    void skipsDeletedListings() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Listing listing = Listing.findById(listingIds.get(1));
+            listing.deletedAt = Instant.now();
+        });
+
+        String nextCursor = given()
+            .queryParam("limit", 1)
+            .when()
+                .get("/api/favorites/listings")
+            .then()
+                .statusCode(200)
+                .body("items.listing.id", contains(listingIds.get(0)))
+                .body("nextCursor", notNullValue())
+                .extract().path("nextCursor");
+
+        given()
+            .queryParam("limit", 1)
+            .queryParam("cursor", nextCursor)
+            .when()
+                .get("/api/favorites/listings")
+            .then()
+                .statusCode(200)
+                .body("items.listing.id", contains(listingIds.get(2)))
+                .body("nextCursor", nullValue());
+    }
+}
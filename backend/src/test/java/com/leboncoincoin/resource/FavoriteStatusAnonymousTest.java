@@ -0,0 +1,43 @@
+package com.leboncoincoin.resource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * POST /favorites/status without a user: dev authentication off and no OIDC tenant,
+ * so requests are anonymous
+ */
+@QuarkusTest
+@TestProfile(FavoriteStatusAnonymousTest.AnonymousProfile.class)
+class FavoriteStatusAnonymousTest {
+
+    @Test
+    @DisplayName("Anonymous users cannot look up favorite statuses")
+    void rejectsAnonymousUsers() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(Map.of("listingIds", List.of(UUID.randomUUID().toString())))
+            .when()
+                .post("/api/favorites/status")
+            .then()
+                .statusCode(401);
+    }
+
+    public static class AnonymousProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("app.dev.auth-enabled", "true");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.leboncoincoin.resource;
+
+import com.leboncoincoin.entity.Favorite;
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * POST /favorites/status, the batched favorite lookup of listing grids
+ */
+@QuarkusTest
+class FavoriteStatusTest {
+
+    private static final String USER_ID = "test-user-123";
+
+    private String sellerId;
+    private String favoritedId;
+    private String otherId;
+
+    @BeforeEach
+    void createListings() {
+        sellerId = "seller-" + UUID.randomUUID();
+        QuarkusTransaction.requiringNew().run(() -> {
+            if (User.findById(USER_ID) == null) {
+                new User(USER_ID, "test@leboncoincoin.local", "Test User").persist();
+            }
+            new User(sellerId, sellerId + "@example.com", "Seller").persist();
+            Listing favorited = new Listing("Vase", "Vase en grès", new BigDecimal("18.00"), "Maison", "Tours",
+                    List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"), sellerId);
+            favorited.persist();
+            favoritedId = favorited.id;
+            Listing other = new Listing("Miroir", "Miroir ancien", new BigDecimal("45.00"), "Maison", "Tours",
+                    List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"), sellerId);
+            other.persist();
+            otherId = other.id;
+        });
+        given().contentType(ContentType.JSON).when().post("/api/favorites/" + favoritedId).then().statusCode(201);
+    }
+
+    @AfterEach
+    void deleteListings() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Favorite.delete("listingId IN ?1", List.of(favoritedId, otherId));
+            Listing.delete("id IN ?1", List.of(favoritedId, otherId));
+            User.deleteById(sellerId);
+        });
+    }
+
+    @Test
+    @DisplayName("Every requested listing gets a status, false when not favorited or unknown")
+    void returnsStatusPerListing() {
+        String unknownId = UUID.randomUUID().toString();
+        given()
+            .contentType(ContentType.JSON)
+            .body(Map.of("listingIds", List.of(favoritedId, otherId, unknownId, favoritedId)))
+            .when()
+                .post("/api/favorites/status")
+            .then()
+                .statusCode(200)
+                .body("$", aMapWithSize(3))
+                .body("'" + favoritedId + "'", equalTo(true))
+                .body("'" + otherId + "'", equalTo(false))
+                .body("'" + unknownId + "'", equalTo(false));
+    }
+
+    @Test
+    @DisplayName("An empty list gets an empty answer")
+    void acceptsEmptyList() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(Map.of("listingIds", List.of()))
+            .when()
+                .post("/api/favorites/status")
+            .then()
+                .statusCode(200)
+                .body("$", anEmptyMap());
+    }
+
+    @Test
+    @DisplayName("More than 500 listing ids or a missing list are rejected")
+    void rejectsInvalidRequests() {
+        given()
+            .contentType(ContentType.JSON)
+            .body(Map.of("listingIds", Collections.nCopies(501, otherId)))
+            .when()
+                .post("/api/favorites/status")
+            .then()
+                .statusCode(400);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body(Map.of("listingIds", Collections.nCopies(500, otherId)))
+            .when()
+                .post("/api/favorites/status")
+            .then()
+                .statusCode(200);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{}")
+            .when()
+                .post("/api/favorites/status")
+            .then()
+                .statusCode(400);
+    }
+}
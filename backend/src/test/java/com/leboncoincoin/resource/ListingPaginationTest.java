@@ -0,0 +1,107 @@
+package com.leboncoincoin.resource;
+
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Keyset pages of GET /listings, scoped to listings of a location no other test uses
+ */
+@QuarkusTest
+class ListingPaginationTest {
+
+    private static final String SELLER_ID = "test-user-123";
+
+    private String location;
+
+    /**
+     * Listing ids, newest first
+     */
+    private final List<String> listingIds = new ArrayList<>();
+
+    @BeforeEach
+    void createListings() {
+        location = "Pagination " + UUID.randomUUID();
+        listingIds.clear();
+        QuarkusTransaction.requiringNew().run(() -> {
+            if (User.findById(SELLER_ID) == null) {
+                new User(SELLER_ID, "test@leboncoincoin.local", "Test User").persist();
+            }
+            Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+            for (int i = 0; i < 3; i++) {
+                Listing listing = new Listing("Chaise " + i, "Chaise en chêne", new BigDecimal("25.00"),
+                        "Mobilier", location, List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"),
+                        SELLER_ID);
+                listing.createdAt = now.minusSeconds(i);
+                listing.persist();
+                listingIds.add(listing.id);
+            }
+        });
+    }
+
+    @AfterEach
+    void deleteListings() {
+        QuarkusTransaction.requiringNew().run(() -> Listing.delete("id IN ?1", listingIds));
+    }
+
+    @Test
+    @DisplayName("nextCursor continues after the last listing of the page, null on the last page")
+    void pagesThroughListings() {
+        String nextCursor = given()
+            .queryParam("location", location)
+            .queryParam("limit", 2)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200)
+                .body("items.id", contains(listingIds.get(0), listingIds.get(1)))
+                .body("nextCursor", notNullValue())
+                .extract().path("nextCursor");
+
+        given()
+            .queryParam("location", location)
+            .queryParam("limit", 2)
+            .queryParam("cursor", nextCursor)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200)
+                .body("items.id", contains(listingIds.get(2)))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    @DisplayName("Invalid cursors and limits are rejected")
+    void rejectsInvalidParameters() {
+        given()
+            .queryParam("cursor", "not-a-cursor")
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(400);
+
+        given()
+            .queryParam("limit", 0)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(400);
+    }
+}
@@ -0,0 +1,213 @@
+package com.leboncoincoin.resource;
+
+import com.leboncoincoin.entity.Conversation;
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.Message;
+import com.leboncoincoin.entity.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Keyset pages of GET /conversations/{id}/messages over a conversation of five messages
+ */
+@QuarkusTest
+class MessagePaginationTest {
+
+    private static final String BUYER_ID = "test-user-123";
+
+    private String sellerId;
+    private String listingId;
+    private String conversationId;
+
+    /**
+     * Message ids, oldest first
+     */
+    private final List<String> messageIds = new ArrayList<>();
+
+    @BeforeEach
+    void createConversation() {
+        sellerId = "seller-" + UUID.randomUUID();
+        QuarkusTransaction.requiringNew().run(() -> {
+            if (User.findById(BUYER_ID) == null) {
+                new User(BUYER_ID, "test@leboncoincoin.local", "Test User").persist();
+            }
+            new User(sellerId, sellerId + "@example.com", "Seller").persist();
+            Listing listing = new Listing("Vélo de course", "Cadre aluminium", new BigDecimal("300.00"),
+                    "Sport", "Lyon", List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"), sellerId);
+            listing.persist();
+            listingId = listing.id;
+        });
+
+        conversationId = given()
+            .contentType(ContentType.JSON)
+            .body("{\"listingId\": \"" + listingId + "\", \"initialMessage\": \"Message 1\"}")
+            .when()
+                .post("/api/conversations")
+            .then()
+                .statusCode(201)
+                .extract().path("id");
+        messageIds.clear();
+        messageIds.addAll(QuarkusTransaction.requiringNew().call(() ->
+                Message.findByConversationId(conversationId).stream().map(message -> message.id).toList()));
+
+        for (int i = 2; i <= 5; i++) {
+            messageIds.add(given()
+                .contentType(ContentType.JSON)
+                .body("{\"content\": \"Message " + i + "\"}")
+                .when()
+                    .post("/api/conversations/" + conversationId + "/messages")
+                .then()
+                    .statusCode(201)
+                    .extract().path("id"));
+        }
+    }
+
+    @AfterEach
+    void deleteConversation() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            for (Conversation conversation : Conversation.findByListingId(listingId)) {
+                Message.delete("conversation.id", conversation.id);
+                conversation.delete();
+            }
+            Listing.deleteById(listingId);
+            User.deleteById(sellerId);
+        });
+    }
+
+    @Test
+    @DisplayName("Older pages follow previousCursor until the first message, newest first")
+    void pagesBackwards() {
+        String previousCursor = given()
+            .queryParam("limit", 2)
+            .when()
+                .get(messagesPath())
+            .then()
+                .statusCode(200)
+                .body("items.id", contains(messageIds.get(4), messageIds.get(3)))
+                .body("previousCursor", notNullValue())
+                .body("nextCursor", notNullValue())
+                .extract().path("previousCursor");
+
+        previousCursor = given()
+            .queryParam("limit", 2)
+            .queryParam("before", previousCursor)
+            .when()
+                .get(messagesPath())
+            .then()
+                .statusCode(200)
+                .body("items.id", contains(messageIds.get(2), messageIds.get(1)))
+                .body("previousCursor", notNullValue())
+                .extract().path("previousCursor");
+
+        given()
+            .queryParam("limit", 2)
+            .queryParam("before", previousCursor)
+            .when()
+                .get(messagesPath())
+            .then()
+                .statusCode(200)
+                .body("items.id", contains(messageIds.get(0)))
+                .body("previousCursor", nullValue())
+                .body("nextCursor", notNullValue());
+    }
+
+    @Test
+    @DisplayName("Newer pages follow nextCursor, returned newest first like the other pages")
+    void pagesForwards() {
+        String previousCursor = given()
+            .queryParam("limit", 4)
+            .when()
+                .get(messagesPath())
+            .then()
+                .statusCode(200)
+                .extract().path("previousCursor");
+        String oldestCursor = given()
+            .queryParam("before", previousCursor)
+            .when()
+                .get(messagesPath())
+            .then()
+                .statusCode(200)
+                .body("items.id", contains(messageIds.get(0)))
+                .extract().path("nextCursor");
+
+        // The two messages right after the oldest one, fetched oldest first and reversed
+        String nextCursor = given()
+            .queryParam("limit", 2)
+            .queryParam("after", oldestCursor)
+            .when()
+                .get(messagesPath())
+            .then()
+                .statusCode(200)
+                .body("items.id", contains(messageIds.get(2), messageIds.get(1)))
+                .body("previousCursor", notNullValue())
+                .extract().path("nextCursor");
+
+        nextCursor = given()
+            .queryParam("limit", 2)
+            .queryParam("after", nextCursor)
+            .when()
+                .get(messagesPath())
+            .then()
+                .statusCode(200)
+                .body("items.id", contains(messageIds.get(4), messageIds.get(3)))
+                .extract().path("nextCursor");
+
+        // Nothing newer yet, the cursor stays usable for the next poll
+        given()
+            .queryParam("after", nextCursor)
+            .when()
+                .get(messagesPath())
+            .then()
+                .statusCode(200)
+                .body("items", empty())
+                .body("nextCursor", equalTo(nextCursor));
+    }
+
+    @Test
+    @DisplayName("Invalid cursors and before combined with after are rejected")
+    void rejectsInvalidCursors() {
+        given()
+            .queryParam("before", "not-a-cursor")
+            .when()
+                .get(messagesPath())
+            .then()
+                .statusCode(400);
+
+        String cursor = given()
+            .queryParam("limit", 2)
+            .when()
+                .get(messagesPath())
+            .then()
+                .statusCode(200)
+                .extract().path("previousCursor");
+
+        given()
+            .queryParam("before", cursor)
+            .queryParam("after", cursor)
+            .when()
+                .get(messagesPath())
+            .then()
+                .statusCode(400);
+    }
+
+    private String messagesPath() {
+        return "/api/conversations/" + conversationId + "/messages";
+    }
+}
@@ -0,0 +1,77 @@
+package com.leboncoincoin.search;
+
+import com.leboncoincoin.Benchmark;
+import com.leboncoincoin.dto.CategorySuggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the Aho–Corasick category matcher
+ */
+class CategoryMatcherTest {
+
+    private CategoryMatcher matcher;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, List<String>> keywords = new LinkedHashMap<>();
+        keywords.put("Véhicules", List.of("voiture", "car", "vehicule", "véhicule", "camping car"));
+        keywords.put("Informatique", List.of("ssd", "carte graphique", "clavier"));
+        keywords.put("Sport & Loisirs", List.of("vélo", "vtt"));
+        keywords.put("Vélo", List.of("vélo", "vtt", "vélo électrique"));
+        keywords.put("Vêtements", List.of("t-shirt", "jean"));
+        matcher = new CategoryMatcher(keywords);
+    }
+
+    @Test
+    @DisplayName("Should match whole words only, ignoring case, accents and punctuation")
+    void testWholeWordMatching() {
+        assertEquals(List.of(new CategorySuggestion("Informatique", 4)),
+                matcher.classify("Carte Graphique RTX", null, 3));
+        assertEquals(List.of(new CategorySuggestion("Vêtements", 6)),
+                matcher.classify("T shirt", "Lot de T-SHIRTS, t-shirt taille M", 3));
+        assertTrue(matcher.classify("Cartes Pokémon", "Jeannette", 3).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should rank by weighted keyword hits, title first")
+    void testRanking() {
+        List<CategorySuggestion> suggestions = matcher.classify("Vélo électrique", "Vélo de ville, VTT", 3);
+
+        assertEquals(List.of(
+                new CategorySuggestion("Vélo", 8),
+                new CategorySuggestion("Sport & Loisirs", 4)
+        ), suggestions);
+        assertEquals(1, matcher.classify("Vélo électrique", null, 1).size());
+    }
+
+    @Test
+    @DisplayName("Should count overlapping keywords and folded duplicates once")
+    void testOverlappingKeywords() {
+        assertEquals(List.of(new CategorySuggestion("Véhicules", 7)),
+                matcher.classify("Camping-car", "véhicule vehicule", 3));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: classifications per second on one thread")
+    void benchmarkThroughput() {
+        String title = "Vélo électrique de ville, très bon état";
+        String description = "Vends mon vélo électrique acheté l'an dernier, batterie neuve, "
+                + "révisé en magasin. Idéal pour les trajets quotidiens, avec antivol et casque. "
+                + "Pas de voiture ? Parfait pour remplacer un scooter en ville.";
+
+        Benchmark.Result result = Benchmark.run("CategoryMatcher.classify, " + (title.length() + description.length()) + " chars",
+                200_000, 1_000_000, () -> matcher.classify(title, description, 3));
+        assertTrue(result.perSecond() > 0);
+    }
+}
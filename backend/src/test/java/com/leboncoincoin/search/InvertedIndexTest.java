@@ -0,0 +1,85 @@
+package com.leboncoincoin.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the in-memory listing search index
+ */
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.put("velo", terms("Vélo électrique de ville"));
+        index.put("velo-route", terms("Vélo de route carbone, vélo léger"));
+        index.put("canape", terms("Canapé 3 places gris"));
+    }
+
+    @Test
+    @DisplayName("Should match accent-insensitive terms and rank by BM25")
+    void testSearchRanking() {
+        List<String> hits = index.search(SearchTokenizer.tokenize("velo"), 10);
+
+        assertEquals(List.of("velo-route", "velo"), hits);
+    }
+
+    @Test
+    @DisplayName("Should require every query term to match")
+    void testConjunctiveQuery() {
+        assertEquals(List.of("velo"), index.search(SearchTokenizer.tokenize("vélo électrique"), 10));
+        assertTrue(index.search(SearchTokenizer.tokenize("vélo gris"), 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should match query terms as prefixes of indexed terms")
+    void testPrefixQuery() {
+        index.put("velomoteur", terms("Vélomoteur 50 cm3"));
+
+        assertEquals(List.of("velo"), index.search(SearchTokenizer.tokenize("vel elec"), 10));
+        assertEquals(3, index.search(SearchTokenizer.tokenize("vel"), 10).size());
+        assertEquals(List.of("velomoteur"), index.search(SearchTokenizer.tokenize("velom"), 10));
+        assertTrue(index.search(SearchTokenizer.tokenize("velos"), 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply updates and removals incrementally")
+    void testIncrementalUpdates() {
+        index.put("canape", terms("Canapé d'angle en cuir"));
+        index.remove("velo");
+
+        assertTrue(index.search(SearchTokenizer.tokenize("gris"), 10).isEmpty());
+        assertEquals(List.of("canape"), index.search(SearchTokenizer.tokenize("cuir"), 10));
+        assertEquals(List.of("velo-route"), index.search(SearchTokenizer.tokenize("velo"), 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should keep results after compaction")
+    void testCompaction() {
+        for (int i = 0; i < 3000; i++) {
+            index.put("tmp-" + i, terms("Lot de vélos " + i));
+            index.remove("tmp-" + i);
+        }
+        index.compact();
+
+        assertEquals(List.of("velo-route", "velo"), index.search(SearchTokenizer.tokenize("velo"), 10));
+        assertEquals(3, index.size());
+    }
+
+    private static Map<String, Integer> terms(String text) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        SearchTokenizer.tokenize(text).forEach(term -> termFreqs.merge(term, 1, Integer::sum));
+        return termFreqs;
+    }
+}
@@ -0,0 +1,120 @@
+package com.leboncoincoin.search;
+
+import com.leboncoincoin.MigratedSchemaProfile;
+import com.leboncoincoin.dto.ListingFilter;
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.User;
+import com.leboncoincoin.repository.ListingRepository;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Partial words typed in the search box give the same listings whether the in-memory index
+ * or the full-text search of the migrated schema answers
+ */
+@QuarkusTest
+@TestProfile(ListingSearchIndexPrefixTest.IndexedMigratedSchemaProfile.class)
+class ListingSearchIndexPrefixTest {
+
+    public static class IndexedMigratedSchemaProfile extends MigratedSchemaProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            Map<String, String> overrides = new HashMap<>(super.getConfigOverrides());
+            overrides.put("app.listings.search.index.enabled", "true");
+            return overrides;
+        }
+    }
+
+    @Inject
+    ListingSearchIndex searchIndex;
+
+    @Inject
+    ListingRepository listingRepository;
+
+    private String sellerId;
+    private String marker;
+
+    @BeforeEach
+    void createListings() {
+        sellerId = "seller-" + UUID.randomUUID();
+        marker = "zq" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+        QuarkusTransaction.requiringNew().run(() -> {
+            new User(sellerId, sellerId + "@example.com", "Seller").persist();
+            persistListing("Vélo électrique " + marker);
+            persistListing("Vélomoteur " + marker);
+            persistListing("Casque de vélo " + marker);
+            persistListing("Veste en cuir " + marker);
+        });
+        searchIndex.rebuild();
+    }
+
+    @AfterEach
+    void deleteListings() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Listing.<Listing>list("userId", sellerId).forEach(Listing::delete);
+            User.deleteById(sellerId);
+        });
+        searchIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Prefix queries match the same listings in the index and in the database")
+    void indexMatchesDatabaseOnPrefixes() {
+        for (String words : List.of("vel", "vélo", "élec", "vel cas", "ve", "cui")) {
+            String search = marker + " " + words;
+            assertTrue(searchIndex.search(search).isPresent(), search);
+            assertEquals(databaseMatches(search), apiMatches(search), search);
+        }
+        assertEquals(3, apiMatches(marker + " vel").size());
+    }
+
+    @Test
+    @DisplayName("A term too short for the index sends the search to the database")
+    void shortTermsFallBackToDatabase() {
+        assertFalse(searchIndex.search(marker + " v").isPresent());
+        assertFalse(searchIndex.search("v").isPresent());
+        assertEquals(databaseMatches(marker + " v"), apiMatches(marker + " v"));
+        assertEquals(4, apiMatches(marker + " v").size());
+    }
+
+    private Set<String> apiMatches(String search) {
+        List<String> ids = given()
+            .queryParam("search", search)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200)
+                .extract().path("id");
+        return new HashSet<>(ids);
+    }
+
+    private Set<String> databaseMatches(String search) {
+        ListingFilter filter = new ListingFilter(null, null, null, null, search);
+        return new HashSet<>(QuarkusTransaction.requiringNew().call(() ->
+                listingRepository.findWithFilter(filter).stream().map(listing -> listing.id).toList()));
+    }
+
+    private void persistListing(String title) {
+        new Listing(title, "Annonce de test", new BigDecimal("50.00"), "Sport & Loisirs", "Lyon",
+                List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"), sellerId).persist();
+    }
+}
@@ -0,0 +1,130 @@
+package com.leboncoincoin.search;
+
+import com.leboncoincoin.entity.Listing;
+import com.leboncoincoin.entity.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Searches served by the in-memory index, with a cap of 3 hits so that the filters
+ * and pagination applied after the index can be checked past the cap
+ */
+@QuarkusTest
+@TestProfile(ListingSearchIndexTest.IndexEnabledProfile.class)
+class ListingSearchIndexTest {
+
+    public static class IndexEnabledProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "app.listings.search.index.enabled", "true",
+                    "app.listings.search.index.max-hits", "3"
+            );
+        }
+    }
+
+    @Inject
+    ListingSearchIndex searchIndex;
+
+    private String sellerId;
+    private String marker;
+    private String lastRankedId;
+
+    @BeforeEach
+    void createListings() {
+        sellerId = "seller-" + UUID.randomUUID();
+        marker = "zq" + UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+        QuarkusTransaction.requiringNew().run(() -> {
+            new User(sellerId, sellerId + "@example.com", "Seller").persist();
+            for (int i = 0; i < 4; i++) {
+                persistListing(marker + " " + marker + " vélo " + i, "Vélo", "Lyon");
+            }
+            // Longest text and a single occurrence, ranked last by BM25
+            lastRankedId = persistListing("Casque " + marker + " taille M, très bon état, peu servi", "Sport", "Paris");
+        });
+        searchIndex.rebuild();
+    }
+
+    @AfterEach
+    void deleteListings() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            Listing.delete("userId", sellerId);
+            User.deleteById(sellerId);
+        });
+        searchIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("The index answers searches with fewer matches than the cap")
+    void servesSearchesUnderTheCap() {
+        assertEquals(List.of(lastRankedId), searchIndex.search(marker + " casque").orElseThrow());
+        assertTrue(searchIndex.search(marker).isEmpty());
+
+        given()
+            .queryParam("search", marker + " casque")
+            .queryParam("sort", "relevance")
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200)
+                .body("id", contains(lastRankedId));
+    }
+
+    @Test
+    @DisplayName("Filters apply to every match when there are more matches than the cap")
+    void filtersAllMatchesPastTheCap() {
+        given()
+            .queryParam("search", marker)
+            .queryParam("category", "Sport")
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200)
+                .body("id", contains(lastRankedId));
+
+        given()
+            .queryParam("search", marker)
+            .queryParam("location", "Paris")
+            .queryParam("limit", 2)
+            .when()
+                .get("/api/listings")
+            .then()
+                .statusCode(200)
+                .body("items.id", contains(lastRankedId));
+
+        given()
+            .queryParam("search", marker)
+            .when()
+                .get("/api/listings/facets")
+            .then()
+                .statusCode(200)
+                .body("total", equalTo(5))
+                .body("categories", hasSize(2));
+    }
+
+    private String persistListing(String title, String category, String location) {
+        Listing listing = new Listing(title, "Annonce de test", new BigDecimal("80.00"), category, location,
+                List.of("https://cdn.example.com/" + UUID.randomUUID() + ".jpg"), sellerId);
+        listing.persist();
+        return listing.id;
+    }
+}
@@ -0,0 +1,39 @@
+package com.leboncoincoin.security;
+
+import com.leboncoincoin.entity.UserRole;
+import io.quarkus.security.runtime.QuarkusSecurityIdentity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Admin checks read the database role that UserRoleAugmentor adds, never the token roles
+ */
+class SecurityConfigTest {
+
+    @Test
+    @DisplayName("The ADMIN database role grants admin")
+    void adminFromDatabaseRole() {
+        assertTrue(securityConfig(identity().addAttribute(SecurityConfig.USER_ROLE_ATTRIBUTE, UserRole.ADMIN)).isAdmin());
+        assertFalse(securityConfig(identity().addAttribute(SecurityConfig.USER_ROLE_ATTRIBUTE, UserRole.USER)).isAdmin());
+    }
+
+    @Test
+    @DisplayName("Token roles and attributes named like the admin role do not grant admin")
+    void ignoresTokenRoles() {
+        assertFalse(securityConfig(identity().addRole("admin").addRole("ADMIN")).isAdmin());
+        assertFalse(securityConfig(identity().addAttribute(SecurityConfig.USER_ROLE_ATTRIBUTE, "ADMIN")).isAdmin());
+    }
+
+    private static QuarkusSecurityIdentity.Builder identity() {
+        return QuarkusSecurityIdentity.builder().setPrincipal(() -> "user-1");
+    }
+
+    private static SecurityConfig securityConfig(QuarkusSecurityIdentity.Builder identity) {
+        SecurityConfig securityConfig = new SecurityConfig();
+        securityConfig.securityIdentity = identity.build();
+        return securityConfig;
+    }
+}
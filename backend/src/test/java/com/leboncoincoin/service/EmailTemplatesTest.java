@@ -0,0 +1,176 @@
+package com.leboncoincoin.service;
+
+import com.leboncoincoin.Benchmark;
+import com.leboncoincoin.repository.UnreadDigestRepository.UnreadConversation;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Renders the email templates through EmailService.Templates, so the build validates every
+ * expression against the typed parameters and the output is escaped like in production
+ */
+@QuarkusTest
+class EmailTemplatesTest {
+
+    private static final String MESSAGE = "Bonjour,\n<script>alert('x')</script> & \"merci\" à 100%";
+
+    @Test
+    @DisplayName("Welcome email greets the user by name and links to the app")
+    void rendersWelcome() {
+        String html = EmailService.Templates.welcome("Alice", "LMC Annonces", "https://annonces.example.com").render();
+
+        assertTrue(html.contains("<h2>Bonjour Alice,</h2>"));
+        assertTrue(html.contains("Bienvenue sur LMC Annonces !"));
+        assertTrue(html.contains("#667eea 0%, #764ba2 100%"));
+        assertTrue(html.contains("<a href=\"https://annonces.example.com\" class=\"button\">"));
+    }
+
+    @Test
+    @DisplayName("Contact email escapes user input")
+    void escapesContactMessage() {
+        String html = renderContact("Bob <admin>", "bob@example.com", "user-1");
+
+        assertFalse(html.contains("<script>"));
+        assertFalse(html.contains("Bob <admin>"));
+        assertTrue(html.contains("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;merci&quot; à 100%"));
+        assertTrue(html.contains("Bob &lt;admin&gt;"));
+        assertTrue(html.contains("<strong>Email :</strong> bob@example.com<br>"));
+    }
+
+    @Test
+    @DisplayName("Contact email falls back for anonymous users")
+    void rendersAnonymousContact() {
+        String html = renderContact("Utilisateur anonyme", null, null);
+
+        assertTrue(html.contains("<strong>Email :</strong> Non connecté<br>"));
+        assertTrue(html.contains("<strong>ID Utilisateur :</strong> Anonyme"));
+    }
+
+    @Test
+    @DisplayName("Digest lists the conversations with unread messages")
+    void rendersDigest() {
+        LocalDateTime now = LocalDateTime.now();
+        String html = EmailService.Templates.digest("Alice", 4L, List.of(
+                        new UnreadConversation("user-1", "alice@example.com", "Alice", "conv-1", "Vélo <rouge>", 3, now),
+                        new UnreadConversation("user-1", "alice@example.com", "Alice", "conv-2", null, 1, now)),
+                2, "http://localhost:5173").render();
+
+        assertTrue(html.contains("4 nouveaux messages"));
+        assertTrue(html.contains("<strong>Vélo &lt;rouge&gt;</strong>"));
+        assertTrue(html.contains("3 messages non lus"));
+        assertTrue(html.contains("<strong>Annonce supprimée</strong>"));
+        assertTrue(html.contains("1 message non lu\n"));
+        assertTrue(html.contains("href=\"http://localhost:5173/conversations/conv-2\""));
+        assertTrue(html.contains("2 autres conversations"));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: contact email rendering, String.format vs pre-parsed Qute template")
+    void benchmarkRendering() {
+        Benchmark.run("Contact email, String.format", 50_000, 50_000, EmailTemplatesTest::renderWithFormat);
+        Benchmark.run("Contact email, Qute template", 50_000, 50_000,
+                () -> renderContact("Alice", "alice@example.com", "user-1"));
+    }
+
+    private static String renderContact(String userName, String userEmail, String userId) {
+        return EmailService.Templates.contact("Question générale", userName, userEmail, userId, MESSAGE).render();
+    }
+
+    /**
+     * What ContactResource.generateContactEmailTemplate did before the Qute templates:
+     * the format string is parsed on every call and only the message is escaped
+     */
+    private static String renderWithFormat() {
+        return String.format(LEGACY_CONTACT, "Question générale", "Alice", "alice@example.com", "user-1",
+                escapeHtml(MESSAGE));
+    }
+
+    private static String escapeHtml(String text) {
+        return text
+            .replace("&", "&amp;")
+            .replace("<", "&lt;")
+            .replace(">", "&gt;")
+            .replace("\"", "&quot;")
+            .replace("'", "&#39;");
+    }
+
+    private static final String LEGACY_CONTACT = """
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <meta charset="UTF-8">
+                <style>
+                    body {
+                        font-family: Arial, sans-serif;
+                        line-height: 1.6;
+                        color: #333;
+                        max-width: 600px;
+                        margin: 0 auto;
+                        padding: 20px;
+                    }
+                    .header {
+                        background: linear-gradient(135deg, #FFD700 0%%, #FF9500 100%%);
+                        color: white;
+                        padding: 30px;
+                        text-align: center;
+                        border-radius: 10px 10px 0 0;
+                    }
+                    .content {
+                        background: #f9f9f9;
+                        padding: 30px;
+                        border-radius: 0 0 10px 10px;
+                    }
+                    .info-box {
+                        background: white;
+                        padding: 15px;
+                        border-left: 4px solid #FFD700;
+                        margin: 15px 0;
+                    }
+                    .message-box {
+                        background: white;
+                        padding: 20px;
+                        border-radius: 5px;
+                        margin: 20px 0;
+                        white-space: pre-wrap;
+                    }
+                    .footer {
+                        text-align: center;
+                        margin-top: 20px;
+                        color: #666;
+                        font-size: 12px;
+                    }
+                </style>
+            </head>
+            <body>
+                <div class="header">
+                    <h1>🦆 Nouveau message de contact</h1>
+                </div>
+                <div class="content">
+                    <div class="info-box">
+                        <strong>Raison :</strong> %s<br>
+                        <strong>Utilisateur :</strong> %s<br>
+                        <strong>Email :</strong> %s<br>
+                        <strong>ID Utilisateur :</strong> %s
+                    </div>
+
+                    <h3>Message :</h3>
+                    <div class="message-box">
+                        %s
+                    </div>
+                </div>
+                <div class="footer">
+                    <p>© 2024 LeBonCoinCoin - Message de contact</p>
+                </div>
+            </body>
+            </html>
+            """;
+}
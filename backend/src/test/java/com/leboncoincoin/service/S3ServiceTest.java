@@ -0,0 +1,95 @@
+package com.leboncoincoin.service;
+
+import com.leboncoincoin.Benchmark;
+import com.leboncoincoin.dto.PresignedUrlRequest;
+import com.leboncoincoin.dto.PresignedUrlResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Signing is local (no request to S3), so this runs against the MinIO settings of the dev profile
+ * without a MinIO instance
+ */
+class S3ServiceTest {
+
+    private S3Service s3Service;
+
+    @BeforeEach
+    void setUp() {
+        s3Service = new S3Service();
+        s3Service.bucketName = "leboncoincoin-bucket";
+        s3Service.presignedUrlExpiration = 300;
+        s3Service.region = "us-east-1";
+        s3Service.endpointOverride = Optional.of("http://localhost:9000");
+        s3Service.pathStyleAccess = Optional.of(true);
+        s3Service.accessKeyId = Optional.of("minioadmin");
+        s3Service.secretAccessKey = Optional.of("minioadmin");
+        s3Service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Service.close();
+    }
+
+    @Test
+    @DisplayName("Batch returns one signed URL per file, in order, under the user prefix")
+    void presignsBatchInOrder() {
+        List<PresignedUrlResponse> urls = s3Service.generatePresignedUploadUrls(List.of(
+                new PresignedUrlRequest("front.jpg", "image/jpeg"),
+                new PresignedUrlRequest("back.png", "image/png"),
+                new PresignedUrlRequest("side.jpg", "image/jpeg")
+        ), "user-1");
+
+        assertEquals(3, urls.size());
+        assertTrue(urls.get(0).objectKey().endsWith(".jpg"));
+        assertTrue(urls.get(1).objectKey().endsWith(".png"));
+        Set<String> keys = urls.stream().map(PresignedUrlResponse::objectKey).collect(Collectors.toSet());
+        assertEquals(3, keys.size());
+        for (PresignedUrlResponse url : urls) {
+            assertTrue(url.objectKey().startsWith("user-1/"));
+            assertTrue(url.uploadUrl().startsWith("http://localhost:9000/leboncoincoin-bucket/user-1/"));
+            assertTrue(url.uploadUrl().contains("X-Amz-Signature="));
+            assertEquals("http://localhost:9000/leboncoincoin-bucket/" + url.objectKey(), url.publicUrl());
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("Benchmark: per-URL signing cost, presigner built per call vs shared")
+    void benchmarkSigningCost() {
+        Benchmark.Result perCall = Benchmark.run("S3 presign, presigner per call", 2_000, 2_000,
+                this::signWithNewPresigner);
+        Benchmark.Result shared = Benchmark.run("S3 presign, shared presigner", 2_000, 2_000,
+                () -> s3Service.generatePresignedUploadUrl("photo.jpg", "image/jpeg", "user-1"));
+
+        assertTrue(shared.micros() < perCall.micros());
+    }
+
+    /**
+     * What generatePresignedUploadUrl did before the presigner was shared
+     */
+    private PresignedPutObjectRequest signWithNewPresigner() {
+        try (S3Presigner presigner = s3Service.createPresigner()) {
+            return presigner.presignPutObject(builder -> builder
+                    .signatureDuration(java.time.Duration.ofSeconds(300))
+                    .putObjectRequest(request -> request
+                            .bucket("leboncoincoin-bucket")
+                            .key("user-1/photo.jpg")
+                            .contentType("image/jpeg")));
+        }
+    }
+}
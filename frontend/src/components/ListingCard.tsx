@@ -18,7 +18,7 @@ import { favoritesApi } from '@/services/api'
 import { useAuthSafe } from '@/hooks/useAuthSafe'
 import { DuckCard, CategoryChip } from './ui'
 import { getCategoryIcon } from '@/constants/categoryIcons'
-import { formatPrice } from '@/utils'
+import { formatPrice, imageVariant } from '@/utils'
 
 interface ListingCardProps {
   listing: Listing
@@ -77,7 +77,9 @@ export default function ListingCard({ listing, onFavoriteChange }: ListingCardPr
     navigate(`/listings/${listing.id}`)
   }
 
-  const imageUrl = listing.imageUrls?.[0] || 'https://via.placeholder.com/400x300?text=🦆+Pas+d\'image'
+  const imageUrl = listing.imageUrls?.[0]
+    ? imageVariant(listing, listing.imageUrls[0], 'card')
+    : 'https://via.placeholder.com/400x300?text=🦆+Pas+d\'image'
 
   // Format date
   const formatDate = (dateString: string) => {
@@ -1,4 +1,4 @@
-import { useState } from 'react'
+import { useState, useEffect } from 'react'
 import {
   Box,
   TextField,
@@ -35,7 +35,7 @@ import { getCurrentCity } from '@/services/geolocationApi'
 import type { ListingFilter } from '@/types'
 import CategorySelect from '@/components/CategorySelect'
 import { getCategoryIcon } from '@/constants/categoryIcons'
-import { guessCategoryFromText } from '@/constants/categoryKeywords'
+import { useCategorySuggestion } from '@/hooks/useCategorySuggestion'
 
 interface ListingFiltersProps {
   onFilter: (filters: ListingFilter) => void
@@ -51,6 +51,14 @@ export default function ListingFilters({ onFilter }: ListingFiltersProps) {
   const [geolocating, setGeolocating] = useState(false)
   const [categoryLocked, setCategoryLocked] = useState(false)
 
+  // Auto-detect category from search text if category is not locked
+  const suggestedCategory = useCategorySuggestion(filters.search, !categoryLocked)
+  useEffect(() => {
+    if (suggestedCategory && !categoryLocked) {
+      setFilters((prev) => ({ ...prev, category: suggestedCategory }))
+    }
+  }, [suggestedCategory, categoryLocked])
+
   const handleSearch = () => {
     onFilter(filters)
   }
@@ -169,18 +177,7 @@ export default function ListingFilters({ onFilter }: ListingFiltersProps) {
               placeholder="Que recherchez-vous ?"
               value={filters.search || ''}
               onChange={(e) => {
-                const searchValue = e.target.value
-                const newFilters: ListingFilter = { ...filters, search: searchValue }
-                
-                // Auto-detect category from search text if category is not locked
-                if (!categoryLocked && searchValue.trim().length > 0) {
-                  const guessedCategory = guessCategoryFromText(searchValue)
-                  if (guessedCategory) {
-                    newFilters.category = guessedCategory
-                  }
-                }
-                
-                setFilters(newFilters)
+                setFilters({ ...filters, search: e.target.value })
               }}
               onKeyDown={(e) => e.key === 'Enter' && handleSearch()}
               variant="standard"
@@ -1,90 +0,0 @@
-export const CATEGORY_KEYWORDS = [
-  { category: 'Moto', keywords: ['moto', 'scooter', 'harley', 'yamaha', 'ducati', 'kawasaki', 'suzuki', 'vespa', '125cc', 'roadster'] },
-  {
-    category: 'Véhicules',
-    keywords: ['voiture', 'auto', 'vehicule', 'véhicule', 'camion', 'car', 'renault', 'peugeot', 'citroen', 'tesla', 'berline', 'SUV', 'utilitaire', 'camping car'],
-  },
-  {
-    category: 'Électronique',
-    keywords: ['iphone', 'smartphone', 'android', 'ordinateur', 'laptop', 'pc', 'console', 'ps5', 'xbox', 'tv', 'télévision', 'tablette', 'ipad', 'drone', 'appareil photo', 'macbook'],
-  },
-  { category: 'Informatique', keywords: ['ssd', 'ram', 'processeur', 'gpu', 'carte graphique', 'clavier', 'souris', 'écran pc', 'gaming pc'] },
-  {
-    category: 'Immobilier',
-    keywords: ['appartement', 'maison', 'studio', 'villa', 'colocation', 'terrain', 'loft', 'garage', 'bureau', 'local commercial'],
-  },
-  {
-    category: 'Mobilier',
-    keywords: ['canapé', 'table', 'chaise', 'armoire', 'buffet', 'commode', 'lit', 'matelas', 'meuble tv', 'bibliothèque', 'fauteuil'],
-  },
-  {
-    category: 'Maison & Jardin',
-    keywords: ['tondeuse', 'salon de jardin', 'barbecue', 'plante', 'jardin', 'outils jardin', 'serre', 'parasol', 'piscine'],
-  },
-  {
-    category: 'Sport & Loisirs',
-    keywords: ['vélo', 'vtt', 'tapis de course', 'haltères', 'fitness', 'football', 'basket', 'raquette', 'ski', 'snowboard', 'kayak', 'surf'],
-  },
-  { category: 'Vélo', keywords: ['vélo', 'vtt', 'fixie', 'bmx', 'vélo électrique', 'cyclisme'] },
-  {
-    category: 'Puériculture',
-    keywords: ['poussette', 'lit bébé', 'siège auto', 'chaise haute', 'jouet bébé', 'gigoteuse'],
-  },
-  {
-    category: 'Mode & Beauté',
-    keywords: ['robe', 'chaussures', 'sac', 'louis vuitton', 'montre', 'bijoux', 'maquillage', 'soin visage', 'parfum', 'nike', 'adidas'],
-  },
-  {
-    category: 'Vêtements',
-    keywords: ['t-shirt', 'jean', 'veste', 'manteau', 'pull', 'costume', 'chemise', 'jupe', 'pantalon'],
-  },
-  {
-    category: 'Chaussures',
-    keywords: ['baskets', 'sneakers', 'talons', 'bottes', 'sandales', 'escarpins', 'dr martens'],
-  },
-  {
-    category: 'Jeux & Jouets',
-    keywords: ['lego', 'playmobil', 'puzzle', 'jeu de société', 'figurine', 'console retro', 'pokemon'],
-  },
-  {
-    category: 'Musique',
-    keywords: ['guitare', 'piano', 'synthétiseur', 'batterie', 'violon', 'ampli', 'microphone', 'platines', 'vinyles'],
-  },
-  { category: 'Livres & Magazines', keywords: ['roman', 'manga', 'bd', 'livre', 'magazine', 'encyclopédie'] },
-  { category: 'Services', keywords: ['cours', 'coaching', 'réparation', 'dépannage', 'garde', 'ménage', 'traduction'] },
-  {
-    category: 'Animaux',
-    keywords: ['chien', 'chat', 'poisson', 'cage', 'aquarium', 'niche', 'litière', 'terrarium'],
-  },
-  { category: 'Bricolage', keywords: ['perceuse', 'scie', 'marteau', 'outil', 'visseuse', 'ponceuse', 'établi'] },
-  {
-    category: 'Électroménager',
-    keywords: ['frigo', 'réfrigérateur', 'lave-linge', 'lave vaisselle', 'four', 'micro-ondes', 'aspirateur', 'robot cuisine'],
-  },
-  { category: 'Accessoires', keywords: ['porte-clé', 'écharpe', 'chapeau', 'ceinture', 'lunettes', 'gants'] },
-  { category: 'Art & Collections', keywords: ['peinture', 'sculpture', 'poster', 'collection', 'figurine', 'antiquité'] },
-  {
-    category: 'Autre',
-    keywords: ['divers', 'autre', 'insolite'],
-  },
-] as const
-
-/**
- * Devine la catégorie à partir d'un texte en cherchant des mots-clés
- * @param text Le texte à analyser (ex: titre d'annonce ou recherche)
- * @returns La catégorie détectée ou null si aucune correspondance
- */
-export function guessCategoryFromText(text: string): string | null {
-  if (!text || text.trim().length === 0) {
-    return null
-  }
-  
-  const normalized = text.toLowerCase()
-  for (const mapping of CATEGORY_KEYWORDS) {
-    if (mapping.keywords.some((keyword) => normalized.includes(keyword))) {
-      return mapping.category
-    }
-  }
-  return null
-}
-
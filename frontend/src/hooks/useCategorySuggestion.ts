@@ -0,0 +1,40 @@
+/**
+ * Hook suggesting a category for a text (listing title or search), from the backend keyword dictionary
+ */
+
+import { useState, useEffect } from 'react'
+import { listingsApi } from '@/services/api'
+
+const DEBOUNCE_MS = 300
+
+export function useCategorySuggestion(text: string | undefined, enabled = true): string | null {
+  const [category, setCategory] = useState<string | null>(null)
+
+  useEffect(() => {
+    const title = text?.trim() ?? ''
+    if (!enabled || title.length === 0) {
+      setCategory(null)
+      return
+    }
+
+    // Ask once the user pauses typing, ignore answers to older texts
+    let stale = false
+    const timeout = setTimeout(async () => {
+      try {
+        const suggestions = await listingsApi.suggestCategory(title)
+        if (!stale) {
+          setCategory(suggestions[0]?.category ?? null)
+        }
+      } catch {
+        // Suggestion is a convenience, keep the current category
+      }
+    }, DEBOUNCE_MS)
+
+    return () => {
+      stale = true
+      clearTimeout(timeout)
+    }
+  }, [text, enabled])
+
+  return category
+}
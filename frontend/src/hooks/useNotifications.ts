@@ -4,8 +4,11 @@
 
 import { useState, useEffect } from 'react'
 import { useAuthSafe } from './useAuthSafe'
-import { favoritesApi, setAuthToken } from '@/services/api'
-import { messagingApi } from '@/services/messagingApi'
+import { userApi, setAuthToken } from '@/services/api'
+import { openNotificationStream } from '@/services/notificationStream'
+
+const POLL_INTERVAL_MS = 30000
+const STREAM_RETRY_MS = 60000
 
 export function useNotifications() {
   const { isSignedIn, getToken } = useAuthSafe()
@@ -14,6 +17,11 @@ export function useNotifications() {
   const [loading, setLoading] = useState(false)
 
   useEffect(() => {
+    let streaming = false
+    let disposed = false
+    const abort = new AbortController()
+    let retryTimeout: ReturnType<typeof setTimeout> | undefined
+
     const fetchCounts = async () => {
       if (!isSignedIn) {
         setFavoritesCount(0)
@@ -26,24 +34,13 @@ export function useNotifications() {
         const token = await getToken()
         setAuthToken(token)
 
-        // Fetch favorites count
-        const favorites = await favoritesApi.getFavorites()
-        setFavoritesCount(favorites.length)
-
-        // Fetch unread messages count
-        try {
-          const conversations = await messagingApi.getUserConversations()
+        // Both counts in one lightweight call
+        const badges = await userApi.getBadges()
+        setFavoritesCount(badges.favorites)
 
-          // CORRECTION : On additionne les messages non lus de chaque conversation
-          // Ton backend Java renvoie un champ 'unreadCount' dans le JSON
-          const unreadCount = conversations.reduce((total, conv) => {
-            return total + (conv.unreadCount || 0)
-          }, 0)
-
-          setUnreadMessagesCount(unreadCount)
-        } catch (err) {
-          console.error('Error fetching messages:', err)
-          setUnreadMessagesCount(0)
+        // Unread count is pushed by the notification stream while it is open
+        if (!streaming) {
+          setUnreadMessagesCount(badges.unreadMessages)
         }
       } catch (error) {
         console.error('Error fetching notification counts:', error)
@@ -54,11 +51,48 @@ export function useNotifications() {
       }
     }
 
+    // Push channel, falls back to polling when the stream is unavailable (e.g. behind Lambda)
+    const connect = async () => {
+      if (!isSignedIn || disposed) {
+        return
+      }
+      try {
+        const token = await getToken()
+        if (!token) {
+          return
+        }
+        await openNotificationStream(
+          token,
+          (notification) => {
+            streaming = true
+            if (notification.type === 'UNREAD_COUNT' && notification.unreadCount !== null) {
+              setUnreadMessagesCount(notification.unreadCount)
+            }
+          },
+          abort.signal
+        )
+      } catch (error) {
+        if (!abort.signal.aborted) {
+          console.warn('Notification stream unavailable, polling instead:', error)
+        }
+      }
+      streaming = false
+      if (!disposed) {
+        retryTimeout = setTimeout(connect, STREAM_RETRY_MS)
+      }
+    }
+
     fetchCounts()
+    connect()
 
     // Refresh every 30 seconds
-    const interval = setInterval(fetchCounts, 30000)
-    return () => clearInterval(interval)
+    const interval = setInterval(fetchCounts, POLL_INTERVAL_MS)
+    return () => {
+      disposed = true
+      abort.abort()
+      clearTimeout(retryTimeout)
+      clearInterval(interval)
+    }
   }, [isSignedIn, getToken])
 
   return {
@@ -67,5 +101,3 @@ export function useNotifications() {
     loading,
   }
 }
-
-
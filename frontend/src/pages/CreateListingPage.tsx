@@ -1,4 +1,4 @@
-import { useState } from 'react'
+import { useState, useEffect } from 'react'
 import { useNavigate } from 'react-router-dom'
 import { useAuthSafe } from '@/hooks/useAuthSafe'
 import {
@@ -23,7 +23,7 @@ import { listingsApi, uploadApi, setAuthToken } from '@/services/api'
 import { searchLocations, type LocationSuggestion } from '@/services/locationApi'
 import type { CreateListingRequest } from '@/types'
 import CategorySelect from '@/components/CategorySelect'
-import { guessCategoryFromText } from '@/constants/categoryKeywords'
+import { useCategorySuggestion } from '@/hooks/useCategorySuggestion'
 
 type FieldErrors = Partial<Record<'title' | 'description' | 'location' | 'price', string>>
 
@@ -50,6 +50,14 @@ export default function CreateListingPage() {
     imageUrls: [],
   })
 
+  // Category guessed from the title until the user picks one
+  const suggestedCategory = useCategorySuggestion(formData.title, !categoryLocked)
+  useEffect(() => {
+    if (suggestedCategory && !categoryLocked) {
+      setFormData((prev) => ({ ...prev, category: suggestedCategory }))
+    }
+  }, [suggestedCategory, categoryLocked])
+
   const clearFieldError = (field: keyof FieldErrors) => {
     setFieldErrors((prev) => {
       if (!prev[field]) {
@@ -67,18 +75,7 @@ export default function CreateListingPage() {
     }
     setFormData((prev) => ({
       ...prev,
-      ...(name === 'title'
-        ? (() => {
-            const updates: Partial<CreateListingRequest> = { title: value }
-            if (!categoryLocked) {
-              const guessedCategory = guessCategoryFromText(value)
-              if (guessedCategory) {
-                updates.category = guessedCategory
-              }
-            }
-            return updates
-          })()
-        : { [name]: name === 'price' ? parseFloat(value) || 0 : value }),
+      [name]: name === 'price' ? parseFloat(value) || 0 : value,
     }))
   }
   
@@ -101,9 +98,12 @@ export default function CreateListingPage() {
       const token = await getToken()
       setAuthToken(token)
 
-      for (const file of Array.from(files)) {
-        // Get presigned URL
-        const { uploadUrl, publicUrl } = await uploadApi.getPresignedUrl(file.name, file.type)
+      // Get all presigned URLs in one call
+      const selectedFiles = Array.from(files)
+      const presignedUrls = await uploadApi.getPresignedUrls(selectedFiles)
+
+      for (const [index, file] of selectedFiles.entries()) {
+        const { uploadUrl, publicUrl } = presignedUrls[index]
 
         // Upload to S3
         await uploadApi.uploadToS3(uploadUrl, file)
@@ -119,9 +119,12 @@ export default function EditListingPage() {
       const token = await getToken()
       setAuthToken(token)
 
-      for (const file of Array.from(files)) {
-        // Get presigned URL
-        const { uploadUrl, publicUrl } = await uploadApi.getPresignedUrl(file.name, file.type)
+      // Get all presigned URLs in one call
+      const selectedFiles = Array.from(files)
+      const presignedUrls = await uploadApi.getPresignedUrls(selectedFiles)
+
+      for (const [index, file] of selectedFiles.entries()) {
+        const { uploadUrl, publicUrl } = presignedUrls[index]
 
         // Upload to S3
         await uploadApi.uploadToS3(uploadUrl, file)
@@ -31,7 +31,7 @@ import { messagingApi } from '@/services/messagingApi'
 import type { Listing } from '@/types'
 import ImageSlider from '@/components/ImageSlider'
 import { getCategoryIcon } from '@/constants/categoryIcons'
-import { formatPrice } from '@/utils'
+import { formatPrice, imageVariant } from '@/utils'
 
 export default function ListingDetailPage() {
   const { id } = useParams<{ id: string }>()
@@ -180,7 +180,7 @@ export default function ListingDetailPage() {
 
   const isOwner = clerkUser?.id === listing.userId
   const images = listing.imageUrls?.length > 0 
-    ? listing.imageUrls 
+    ? listing.imageUrls.map((imageUrl) => imageVariant(listing, imageUrl, 'detail'))
     : ['https://via.placeholder.com/800x600?text=No+Image']
 
   const CategoryIcon = getCategoryIcon(listing.category)
@@ -0,0 +1,56 @@
+import { afterEach, describe, expect, it, vi } from 'vitest'
+import type { AxiosResponse } from 'axios'
+import { api, favoritesApi } from './api'
+
+const statusResponse = (status: number, data: Record<string, boolean> = {}) =>
+  ({ status, data }) as AxiosResponse<Record<string, boolean>>
+
+describe('favoritesApi.getFavoriteStatus', () => {
+  afterEach(() => {
+    vi.restoreAllMocks()
+  })
+
+  it('shares one request between the lookups of the same tick', async () => {
+    const post = vi.spyOn(api, 'post').mockResolvedValue(statusResponse(200, { a: true, b: false }))
+
+    const statuses = await Promise.all(['a', 'b', 'c'].map((id) => favoritesApi.getFavoriteStatus(id)))
+
+    expect(post).toHaveBeenCalledTimes(1)
+    expect(post).toHaveBeenCalledWith('/favorites/status', { listingIds: ['a', 'b', 'c'] })
+    expect(statuses).toEqual([{ isFavorited: true }, { isFavorited: false }, { isFavorited: false }])
+  })
+
+  it('starts a new request for lookups made after a flush', async () => {
+    const post = vi.spyOn(api, 'post').mockResolvedValue(statusResponse(200, { a: true }))
+
+    await favoritesApi.getFavoriteStatus('a')
+    await favoritesApi.getFavoriteStatus('a')
+
+    expect(post).toHaveBeenCalledTimes(2)
+  })
+
+  it('splits more than 500 lookups into batches of 500', async () => {
+    const post = vi.spyOn(api, 'post').mockResolvedValue(statusResponse(200))
+    const ids = Array.from({ length: 501 }, (_, index) => `listing-${index}`)
+
+    await Promise.all(ids.map((id) => favoritesApi.getFavoriteStatus(id)))
+
+    expect(post).toHaveBeenCalledTimes(2)
+    expect(post).toHaveBeenNthCalledWith(1, '/favorites/status', { listingIds: ids.slice(0, 500) })
+    expect(post).toHaveBeenNthCalledWith(2, '/favorites/status', { listingIds: ids.slice(500) })
+  })
+
+  it('rejects every lookup of a batch the API refused, e.g. anonymous users', async () => {
+    vi.spyOn(api, 'post').mockResolvedValue(statusResponse(401))
+
+    const results = await Promise.allSettled(['a', 'b'].map((id) => favoritesApi.getFavoriteStatus(id)))
+
+    expect(results.map((result) => result.status)).toEqual(['rejected', 'rejected'])
+  })
+
+  it('rejects every lookup of a batch whose request failed', async () => {
+    vi.spyOn(api, 'post').mockRejectedValue(new Error('Network Error'))
+
+    await expect(favoritesApi.getFavoriteStatus('a')).rejects.toThrow('Network Error')
+  })
+})
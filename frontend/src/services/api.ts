@@ -1,5 +1,5 @@
 import axios from 'axios'
-import type { Listing, User, CreateListingRequest, PresignedUrlResponse } from '@/types'
+import type { Listing, User, CreateListingRequest, PresignedUrlResponse, CategorySuggestion } from '@/types'
 
 // Use proxy in dev mode, direct URL in production
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || '/api'
@@ -66,6 +66,12 @@ export const listingsApi = {
     return data
   },
 
+  // Best matching categories first, empty when no keyword matches
+  suggestCategory: async (title: string, description?: string): Promise<CategorySuggestion[]> => {
+    const response = await api.post('/listings/suggest-category', { title, description })
+    return response.status < 400 ? response.data : []
+  },
+
   getById: async (id: string): Promise<Listing> => {
     const { data } = await api.get(`/listings/${id}`)
     return data
@@ -131,6 +137,11 @@ export const userApi = {
     const { data } = await api.get('/me/listings')
     return data
   },
+
+  getBadges: async (): Promise<import('@/types').Badges> => {
+    const { data } = await api.get('/me/badges')
+    return data
+  },
 }
 
 // Upload API
@@ -143,6 +154,14 @@ export const uploadApi = {
     return data
   },
 
+  // One call for all the selected images (at most 10), URLs come back in the same order
+  getPresignedUrls: async (files: File[]): Promise<PresignedUrlResponse[]> => {
+    const { data } = await api.post('/uploads/presigned-urls', {
+      files: files.map((file) => ({ filename: file.name, contentType: file.type })),
+    })
+    return data
+  },
+
   uploadToS3: async (presignedUrl: string, file: File): Promise<void> => {
     const response = await fetch(presignedUrl, {
       method: 'PUT',
@@ -158,6 +177,33 @@ export const uploadApi = {
   },
 }
 
+// Status lookups made in the same tick (e.g. every card of a grid) share one request
+const FAVORITE_STATUS_BATCH_SIZE = 500
+let pendingStatusLookups: Array<{
+  listingId: string
+  resolve: (status: import('@/types').FavoriteStatus) => void
+  reject: (error: unknown) => void
+}> = []
+
+const flushStatusLookups = async () => {
+  const lookups = pendingStatusLookups
+  pendingStatusLookups = []
+  for (let start = 0; start < lookups.length; start += FAVORITE_STATUS_BATCH_SIZE) {
+    const batch = lookups.slice(start, start + FAVORITE_STATUS_BATCH_SIZE)
+    try {
+      const response = await api.post<Record<string, boolean>>('/favorites/status', {
+        listingIds: batch.map((lookup) => lookup.listingId),
+      })
+      if (response.status >= 400) {
+        throw new Error(`Failed to load favorite status (status ${response.status})`)
+      }
+      batch.forEach((lookup) => lookup.resolve({ isFavorited: response.data[lookup.listingId] === true }))
+    } catch (error) {
+      batch.forEach((lookup) => lookup.reject(error))
+    }
+  }
+}
+
 // Favorites API
 export const favoritesApi = {
   getFavorites: async (): Promise<import('@/types').Favorite[]> => {
@@ -179,9 +225,13 @@ export const favoritesApi = {
     await api.delete(`/favorites/${listingId}`)
   },
 
-  getFavoriteStatus: async (listingId: string): Promise<import('@/types').FavoriteStatus> => {
-    const { data } = await api.get(`/favorites/${listingId}/status`)
-    return data
+  getFavoriteStatus: (listingId: string): Promise<import('@/types').FavoriteStatus> => {
+    return new Promise((resolve, reject) => {
+      if (pendingStatusLookups.length === 0) {
+        setTimeout(flushStatusLookups, 0)
+      }
+      pendingStatusLookups.push({ listingId, resolve, reject })
+    })
   },
 }
 
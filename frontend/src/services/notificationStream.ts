@@ -0,0 +1,52 @@
+import type { UserNotification } from '@/types/messaging'
+
+const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || '/api'
+
+/**
+ * Open the notification stream (Server-Sent Events) of the signed-in user.
+ * EventSource cannot send the Authorization header, so the stream is read with fetch.
+ * Resolves when the stream ends, rejects when it cannot be opened.
+ */
+export async function openNotificationStream(
+  token: string,
+  onNotification: (notification: UserNotification) => void,
+  signal: AbortSignal
+): Promise<void> {
+  const response = await fetch(`${API_BASE_URL}/notifications/stream`, {
+    headers: {
+      Accept: 'text/event-stream',
+      Authorization: `Bearer ${token}`,
+    },
+    signal,
+  })
+  const contentType = response.headers.get('Content-Type') || ''
+  if (!response.ok || !response.body || !contentType.startsWith('text/event-stream')) {
+    throw new Error(`Notification stream unavailable (${response.status})`)
+  }
+
+  const reader = response.body.pipeThrough(new TextDecoderStream()).getReader()
+  let buffer = ''
+  for (;;) {
+    const { value, done } = await reader.read()
+    if (done) {
+      return
+    }
+    buffer += value
+
+    // Events are separated by a blank line, each data line holds one JSON notification
+    let boundary = buffer.indexOf('\n\n')
+    while (boundary >= 0) {
+      const event = buffer.slice(0, boundary)
+      buffer = buffer.slice(boundary + 2)
+      const data = event
+        .split('\n')
+        .filter((line) => line.startsWith('data:'))
+        .map((line) => line.slice(5).trim())
+        .join('\n')
+      if (data) {
+        onNotification(JSON.parse(data) as UserNotification)
+      }
+      boundary = buffer.indexOf('\n\n')
+    }
+  }
+}
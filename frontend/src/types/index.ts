@@ -11,6 +11,22 @@ export interface Listing {
   userEmail: string | null
   createdAt: string
   updatedAt: string
+  // Only images whose resized copies are ready
+  imageVariants?: ImageVariants[]
+}
+
+export type ImageVariantSize = 'card' | 'detail' | 'zoom'
+
+export interface ImageVariants {
+  original: string
+  card: string
+  detail: string
+  zoom: string
+}
+
+export interface CategorySuggestion {
+  category: string
+  score: number
 }
 
 export interface User {
@@ -55,5 +71,10 @@ export interface FavoriteStatus {
   isFavorited: boolean
 }
 
+export interface Badges {
+  favorites: number
+  unreadMessages: number
+}
+
 export * from './messaging'
 
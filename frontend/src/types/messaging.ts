@@ -36,6 +36,12 @@ export interface ConversationWithListing extends Conversation {
   }
 }
 
-
-
-
+export type UserNotificationType = 'NEW_MESSAGE' | 'READ_RECEIPT' | 'UNREAD_COUNT' | 'HEARTBEAT'
+
+export interface UserNotification {
+  type: UserNotificationType
+  conversationId: string | null
+  message: Message | null
+  messageId: string | null
+  unreadCount: number | null
+}
@@ -0,0 +1,9 @@
+import type { Listing, ImageVariantSize } from '@/types'
+
+/**
+ * Resized copy of a listing image when the backend has generated it, the original otherwise
+ */
+export function imageVariant(listing: Pick<Listing, 'imageVariants'>, imageUrl: string, size: ImageVariantSize): string {
+  const variants = listing.imageVariants?.find((variant) => variant.original === imageUrl)
+  return variants?.[size] ?? imageUrl
+}
@@ -1,2 +1,3 @@
 export { formatPrice } from './formatPrice'
+export { imageVariant } from './imageVariant'
 